@@ -0,0 +1,96 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foro.alura.hpg.api.domain.usuario.DatosRegistroUsuario;
+import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Mapeo de Topico a DatosRespuestaTopico y serialización JSON de una página de 10 tópicos,
+ * con un ObjectMapper configurado como el de Spring Boot (fechas ISO, módulos registrados).
+ * * Los métodos '...Preserializado' usan CacheJsonTopicos ya cargada (el caso de un tópico
+ * que no cambió): comparar con sus pares y con '-prof gc' (bytes asignados por operación).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DatosRespuestaTopicoBenchmark {
+
+    private ObjectMapper objectMapper;
+    private List<Topico> topicos;
+    private Page<DatosRespuestaTopico> pagina;
+    private DatosRespuestaTopico detalle;
+    private CacheJsonTopicos cacheJson;
+    private Page<JsonTopico> paginaPreserializada;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        var autor = new Usuario(new DatosRegistroUsuario("Ana", "Bench", "ana@foro.com", "secreto"));
+        topicos = IntStream.range(0, 10)
+                .mapToObj(i -> new Topico(new DatosRegistroTopico(
+                        "Titulo " + i, "Un mensaje de prueba de tamaño razonable número " + i, 1L, "Programación Java"), autor))
+                .toList();
+        pagina = new PageImpl<>(topicos.stream().map(DatosRespuestaTopico::new).toList(), PageRequest.of(0, 10), 1000);
+
+        // Los tópicos no están persistidos (id y versión en null): les damos un id para poder cachearlos.
+        cacheJson = new CacheJsonTopicos(1000, true, 256);
+        ReflectionTestUtils.setField(cacheJson, "objectMapper", objectMapper);
+        var conId = IntStream.range(0, pagina.getNumberOfElements())
+                .mapToObj(i -> {
+                    var datos = pagina.getContent().get(i);
+                    return new DatosRespuestaTopico((long) i + 1, datos.titulo(), datos.mensaje(), datos.fechaDeCreacion(),
+                            datos.curso(), datos.nombreAutor(), datos.status());
+                })
+                .toList();
+        detalle = conId.get(0);
+        paginaPreserializada = new PageImpl<>(conId, PageRequest.of(0, 10), 1000)
+                .map(datos -> cacheJson.obtener(datos.id(), 0L, () -> datos));
+    }
+
+    @Benchmark
+    public DatosRespuestaTopico construirDto() {
+        return new DatosRespuestaTopico(topicos.get(0));
+    }
+
+    @Benchmark
+    public Page<DatosRespuestaTopico> mapearPagina() {
+        return new PageImpl<>(topicos, PageRequest.of(0, 10), 1000).map(DatosRespuestaTopico::new);
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] serializarPaginaPreserializado() throws Exception {
+        return objectMapper.writeValueAsBytes(paginaPreserializada);
+    }
+
+    @Benchmark
+    public byte[] serializarDetalle() throws Exception {
+        return objectMapper.writeValueAsBytes(detalle);
+    }
+
+    @Benchmark
+    public byte[] serializarDetallePreserializado() {
+        return cacheJson.obtener(detalle.id(), 0L, () -> detalle).getBytes();
+    }
+}
@@ -0,0 +1,45 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de BCrypt (el que paga cada login) según el factor de costo.
+ * * SecurityConfigurations usa el valor por defecto de BCryptPasswordEncoder (10).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BCryptBenchmark {
+
+    @Param({"4", "8", "10", "12"})
+    private int costo;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        encoder = new BCryptPasswordEncoder(costo);
+        hash = encoder.encode("secreto");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("secreto");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("secreto", hash);
+    }
+}
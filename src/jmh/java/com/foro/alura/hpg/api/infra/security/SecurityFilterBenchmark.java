@@ -0,0 +1,90 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import com.foro.alura.hpg.api.domain.usuario.DatosRegistroUsuario;
+import com.foro.alura.hpg.api.domain.usuario.IUsuarioRepository;
+import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SecurityFilter: extracción del header y filtro completo con un repositorio de usuarios simulado
+ * (sin base de datos), con la cache de principales activa y desactivada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SecurityFilterBenchmark {
+
+    private static final FilterChain CADENA_VACIA = (request, response) -> { };
+
+    private SecurityFilter filtroConCache;
+    private SecurityFilter filtroSinCache;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void preparar() {
+        var usuario = new Usuario(new DatosRegistroUsuario("Ana", "Bench", "ana@foro.com", "secreto"));
+        var tokenService = TokenServiceBenchmark.crear(10_000);
+
+        filtroConCache = crear(tokenService, usuario, new CachePrincipales(60, 10_000));
+        filtroSinCache = crear(tokenService, usuario, new CachePrincipales(60, 0));
+
+        request = new MockHttpServletRequest("GET", "/topicos");
+        request.addHeader("Authorization", "Bearer " + tokenService.generarToken(usuario));
+    }
+
+    private static SecurityFilter crear(TokenService tokenService, Usuario usuario, CachePrincipales cache) {
+        // Repositorio simulado: findByEmail devuelve siempre el mismo usuario.
+        var repositorio = (IUsuarioRepository) Proxy.newProxyInstance(
+                IUsuarioRepository.class.getClassLoader(),
+                new Class<?>[]{IUsuarioRepository.class},
+                (proxy, metodo, argumentos) -> "findByEmail".equals(metodo.getName()) ? usuario : null);
+
+        var filtro = new SecurityFilter();
+        ReflectionTestUtils.setField(filtro, "iUsuarioRepository", repositorio);
+        ReflectionTestUtils.setField(filtro, "tokenService", tokenService);
+        ReflectionTestUtils.setField(filtro, "cachePrincipales", cache);
+        // Sin revocados (no se llama a 'inicializar', que lee la tabla): cada token se descarta con el filtro de Bloom.
+        ReflectionTestUtils.setField(filtro, "revocacionTokens", new RevocacionTokens(100_000, 0.001));
+        ReflectionTestUtils.setField(filtro, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(filtro, "registrarMetricas");
+        return filtro;
+    }
+
+    @Benchmark
+    public String recuperarToken() {
+        return filtroConCache.recuperarToken(request);
+    }
+
+    @Benchmark
+    public Object filtroCompletoConCachePrincipales() throws Exception {
+        return filtrar(filtroConCache);
+    }
+
+    @Benchmark
+    public Object filtroCompletoSinCachePrincipales() throws Exception {
+        return filtrar(filtroSinCache);
+    }
+
+    private Object filtrar(SecurityFilter filtro) throws Exception {
+        var response = new MockHttpServletResponse();
+        filtro.doFilterInternal(request, response, CADENA_VACIA);
+        var autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return autenticacion;
+    }
+}
@@ -0,0 +1,59 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import com.foro.alura.hpg.api.domain.usuario.DatosRegistroUsuario;
+import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación y verificación de tokens JWT, con y sin la cache de tokens verificados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TokenServiceBenchmark {
+
+    private TokenService conCache;
+    private TokenService sinCache;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        conCache = crear(10_000);
+        sinCache = crear(0);
+        usuario = new Usuario(new DatosRegistroUsuario("Ana", "Bench", "ana@foro.com", "secreto"));
+        token = conCache.generarToken(usuario);
+    }
+
+    static TokenService crear(int maxEntradasCache) {
+        var tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", "firma_de_benchmark");
+        ReflectionTestUtils.setField(tokenService, "maxEntradasCache", maxEntradasCache);
+        ReflectionTestUtils.invokeMethod(tokenService, "inicializar");
+        return tokenService;
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return conCache.generarToken(usuario);
+    }
+
+    @Benchmark
+    public String getSubjectConCache() {
+        return conCache.getSubject(token);
+    }
+
+    @Benchmark
+    public String getSubjectSinCache() {
+        return sinCache.getSubject(token);
+    }
+}
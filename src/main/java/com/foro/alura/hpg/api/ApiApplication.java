@@ -2,8 +2,10 @@ package com.foro.alura.hpg.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Tareas periódicas (ej: ArchivadorTopicos).
 public class ApiApplication {
 
 	public static void main(String[] args) {
@@ -3,7 +3,10 @@ package com.foro.alura.hpg.api.controller;
 import com.foro.alura.hpg.api.domain.usuario.DatosAutenticacion;
 import com.foro.alura.hpg.api.domain.usuario.Usuario;
 import com.foro.alura.hpg.api.infra.security.DatosTokenJWT;
+import com.foro.alura.hpg.api.infra.security.EjecutorVerificacionPasswords;
+import com.foro.alura.hpg.api.infra.security.LimitadorLogin;
 import com.foro.alura.hpg.api.infra.security.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 
 @RestController
 @RequestMapping("/login")
@@ -25,16 +30,33 @@ public class AutenticacionController {
     @Autowired
     private AuthenticationManager manager;
 
+    @Autowired
+    private LimitadorLogin limitadorLogin;
+
+    @Autowired
+    private EjecutorVerificacionPasswords ejecutorVerificacion;
+
+    /**
+     * Inicia sesión y devuelve un token JWT.
+     * * Antes de verificar la contraseña se aplica el límite de intentos por IP y por email (429 si se excede).
+     * * La verificación (BCrypt) corre en un pool propio y acotado; el hilo de Tomcat queda libre
+     * mientras tanto porque el método devuelve un CompletableFuture (procesamiento asíncrono de Spring MVC).
+     */
     @PostMapping
-    public ResponseEntity iniciarSesion(@RequestBody @Valid DatosAutenticacion datos) {
+    public CompletableFuture<ResponseEntity<DatosTokenJWT>> iniciarSesion(@RequestBody @Valid DatosAutenticacion datos,
+                                                                         HttpServletRequest request) {
+
+        limitadorLogin.verificar(request.getRemoteAddr(), datos.email());
 
         var authenticationToken = new UsernamePasswordAuthenticationToken(datos.email(), datos.password());
 
-        var autenticacion = manager.authenticate(authenticationToken);
+        return ejecutorVerificacion.ejecutar(() -> {
+            var autenticacion = manager.authenticate(authenticationToken);
 
-        var tokenJWT = tokenService.generarToken((Usuario) autenticacion.getPrincipal());
+            var tokenJWT = tokenService.generarToken((Usuario) autenticacion.getPrincipal());
 
-        return ResponseEntity.ok(new DatosTokenJWT(tokenJWT));
+            return ResponseEntity.ok(new DatosTokenJWT(tokenJWT));
+        });
     }
 
 }
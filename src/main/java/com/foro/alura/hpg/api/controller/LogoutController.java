@@ -0,0 +1,70 @@
+package com.foro.alura.hpg.api.controller;
+
+import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import com.foro.alura.hpg.api.infra.exceptions.ValidacionException;
+import com.foro.alura.hpg.api.infra.security.DatosRevocacionToken;
+import com.foro.alura.hpg.api.infra.security.DatosTokenVerificado;
+import com.foro.alura.hpg.api.infra.security.RevocacionTokens;
+import com.foro.alura.hpg.api.infra.security.TokenService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/logout")
+public class LogoutController {
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+
+    /**
+     * Cierra la sesión: revoca el token JWT con el que se hizo el request hasta su expiración.
+     * * @return 204 No Content; a partir de ahí el token recibe 403 en cualquier endpoint protegido.
+     */
+    @PostMapping
+    public ResponseEntity cerrarSesion(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        revocar(verificar(authorization.replace("Bearer ", "")));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revoca otro token del mismo usuario (ej: uno filtrado o de otro dispositivo).
+     * * @return 204 No Content, 400 si el token no es válido o 403 si pertenece a otro usuario.
+     */
+    @PostMapping("/token")
+    public ResponseEntity revocarToken(@RequestBody @Valid DatosRevocacionToken datos,
+                                       @AuthenticationPrincipal Usuario usuario) {
+        var token = verificar(datos.token());
+        if (!token.subject().equals(usuario.getEmail())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        revocar(token);
+        return ResponseEntity.noContent().build();
+    }
+
+    private DatosTokenVerificado verificar(String tokenJWT) {
+        try {
+            return tokenService.verificar(tokenJWT);
+        } catch (RuntimeException exception) {
+            throw new ValidacionException("Token JWT invalido o se encuentra expirado");
+        }
+    }
+
+    private void revocar(DatosTokenVerificado token) {
+        if (token.jti() == null) {
+            throw new ValidacionException("El token no tiene identificador (jti) y no se puede revocar: vence solo");
+        }
+        revocacionTokens.revocar(token.jti(), token.expiraEn());
+    }
+}
@@ -3,21 +3,53 @@ package com.foro.alura.hpg.api.controller;
 import com.foro.alura.hpg.api.domain.topico.*;
 import com.foro.alura.hpg.api.domain.usuario.Usuario;
 import com.foro.alura.hpg.api.domain.usuario.IUsuarioRepository;
+import com.foro.alura.hpg.api.infra.exceptions.ValidacionException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.LongSupplier;
+
 @RestController              //  La etiqueta sera @RestController porque no sera una aplicación normal sino una REST.
 @RequestMapping("/topicos")  //  Esta clase 'TopicoController' va a estar escuchando en uno cierto path de
                              //  la URL específica y es acá donde deberemos mapearla.
 public class TopicoController {
 
+    private static final Logger log = LoggerFactory.getLogger(TopicoController.class);
+
+    /**
+     * Rango aceptado para el filtro 'anio' de /topicos/buscar: el rango de DATETIME de MySQL
+     * (el límite superior del filtro es el 1 de enero del año siguiente).
+     */
+    private static final int ANIO_MINIMO = 1000;
+    private static final int ANIO_MAXIMO = 9998;
+
     /**
      * Inyección de dependencias del repositorio de Usuarios.
      * * Gracias a la anotación @Autowired, Spring Boot localiza la implementación
@@ -38,6 +70,65 @@ public class TopicoController {
     @Autowired
     private ITopicoRepository iTopicoRepository;
 
+    @Autowired
+    private ITopicoHistoricoRepository iTopicoHistoricoRepository;
+
+    @Autowired
+    private EstadisticasTopicos estadisticasTopicos;
+
+    @Autowired
+    private TotalesAproximadosTopicos totalesAproximados;
+
+    /**
+     * Índice de búsqueda de texto en memoria (título y mensaje).
+     * * Se actualiza en cada alta, modificación y baja de tópicos de este controller.
+     */
+    @Autowired
+    private IndiceBusquedaTopicos indiceBusqueda;
+
+    /**
+     * Filtro de Bloom con los hashes de contenido existentes.
+     * * Si dice que un tópico seguro no existe, nos ahorramos la consulta de duplicados.
+     */
+    @Autowired
+    private FiltroBloomTopicos filtroDuplicados;
+
+    /**
+     * Cache de lectura del detalle de tópicos; se invalida al actualizar o eliminar.
+     */
+    @Autowired
+    private CacheTopicos cacheTopicos;
+
+    /**
+     * JSON ya serializado de cada tópico (y su variante gzip) para el detalle y los listados.
+     */
+    @Autowired
+    private CacheJsonTopicos cacheJson;
+
+    @Autowired
+    private ImportadorTopicos importadorTopicos;
+
+    /**
+     * Devuelve a 'topicos' los tópicos archivados (cerrados o resueltos) que se quieren modificar o eliminar.
+     */
+    @Autowired
+    private ArchivadorTopicos archivadorTopicos;
+
+    @Autowired
+    private ExportadorTopicos exportadorTopicos;
+
+    /**
+     * Máximo de ids por pedido en GET /topicos?ids= y POST /topicos/batch.
+     */
+    @Value("${api.topicos.lote.max-ids:100}")
+    private int maxIdsLote;
+
+    /**
+     * Canal SSE de GET /topicos/stream; recibe los eventos de alta, modificación y baja.
+     */
+    @Autowired
+    private CanalEventosTopicos canalEventos;
+
 //    //  Forma 1.
 //    //  Esta es la manera más simple de recibir datos desde un JSON.
 //    //  NOTA: no es la mejor forma yá que lo que estamos recibiendo es un String el cual si quisieramos obtener un dato
@@ -60,13 +151,17 @@ public class TopicoController {
     @PostMapping
     @Transactional
     public ResponseEntity registrar(@RequestBody @Valid DatosRegistroTopico datos, UriComponentsBuilder uriBuilder) {
-        // Imprimimos el Record en consola para verificar que Jackson parseó bien el JSON.
-        System.out.println("JSON recibido: " + datos);
+        // Registramos el Record (solo con nivel DEBUG) para verificar que Jackson parseó bien el JSON.
+        log.debug("JSON recibido: {}", datos);
 
         // 1. REGLA DE NEGOCIO: Verificamos duplicados antes de procesar nada.
-        // Le pedimos al repositorio que ejecute un SELECT EXISTS en la base de datos.
-        if (iTopicoRepository.existsByTituloAndMensaje(datos.titulo(), datos.mensaje())) {
-            return ResponseEntity.badRequest().body("Error: El tópico ya existe (mismo título y mensaje).");
+        // Solo si el filtro de Bloom dice que "puede existir" consultamos la base por el hash (índice único).
+        // Si dos POST iguales llegan a la vez, el índice uk_topicos_hash_contenido rechaza el segundo INSERT.
+        // Los tópicos archivados también cuentan: su hash sigue en 'topicos_archivo'.
+        var hashContenido = Topico.calcularHashContenido(datos.titulo(), datos.mensaje());
+        if (filtroDuplicados.puedeContener(hashContenido) && (iTopicoRepository.existsByHashContenido(hashContenido)
+                || iTopicoHistoricoRepository.contarArchivadosConHash(hashContenido) > 0)) {
+            return ResponseEntity.badRequest().body(HashContenidoTopico.MENSAJE_TOPICO_DUPLICADO);
         }
 
         // 2. VINCULACIÓN: Obtenemos una referencia del autor.
@@ -77,6 +172,7 @@ public class TopicoController {
         // El constructor de Topico ya asigna la fecha y el status 'ABIERTO' automáticamente.
         Topico topico = new Topico(datos, usuario);
         iTopicoRepository.save(topico);
+        filtroDuplicados.agregar(topico.getHashContenido());
 
         // 4. CONSTRUCCIÓN DE LA RESPUESTA (La parte de la URI):
         // ¿Qué hace esta línea paso a paso?
@@ -84,12 +180,69 @@ public class TopicoController {
         // .buildAndExpand(topico.getId()) -> Toma el ID que generó la base de datos y lo pone en el {id}.
         // .toUri() -> Convierte toda esa construcción en un objeto URI real (una dirección web).
         var uri = uriBuilder.path("/topicos/{id}").buildAndExpand(topico.getId()).toUri();
+        var datosRespuesta = new DatosRespuestaTopico(topico);
+        indiceBusqueda.indexar(datosRespuesta);
+        estadisticasTopicos.registrar(topico);
+        canalEventos.publicar(DatosEventoTopico.Tipo.CREADO, topico.getId(), topico.getCurso(), datosRespuesta);
 
         // 5. RESPUESTA FINAL:
         // Retornamos el código 201 Created.
         // .created(uri) -> Agrega un encabezado llamado 'Location' con la dirección del nuevo tópico.
         // .body(...) -> Envía en el cuerpo del JSON los datos que acabamos de guardar.
-        return ResponseEntity.created(uri).body(new DatosRespuestaTopico(topico));
+        return ResponseEntity.created(uri).body(datosRespuesta);
+    }
+
+    /**
+     * Endpoint para importar tópicos de forma masiva (migraciones desde otros foros).
+     * * Recibe un cuerpo NDJSON: un objeto DatosRegistroTopico por línea.
+     * * El cuerpo se procesa como flujo, en lotes JDBC que se confirman de a uno, así que
+     * la memoria no crece con el tamaño del archivo. No lleva @Transactional a propósito.
+     * * @return Resumen con filas insertadas, errores por línea y filas por segundo.
+     */
+    @PostMapping(value = "/importar", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<DatosResumenImportacion> importar(InputStream ndjson) throws IOException {
+        return ResponseEntity.ok(importadorTopicos.importar(ndjson));
+    }
+
+    /**
+     * Endpoint para exportar todos los tópicos como NDJSON (por defecto) o CSV.
+     * * El resultado se escribe directamente en la respuesta mientras se lee la base con un cursor,
+     * por lo que no hace falta paginar con OFFSET/COUNT ni cargar la tabla en memoria.
+     * * @param formato 'ndjson' o 'csv'.
+     * @param curso Comienzo del nombre del curso (opcional).
+     * @param status Estado del tópico (opcional).
+     * @param desde Fecha de creación mínima, inclusive (opcional).
+     * @param hasta Fecha de creación máxima, exclusiva (opcional).
+     * @param incluirArchivados Si es true (por defecto, la exportación es completa), incluye los tópicos archivados.
+     */
+    @GetMapping("/export")
+    public void exportar(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestParam(required = false) String curso,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "true") boolean incluirArchivados,
+            HttpServletResponse response) throws IOException {
+
+        ExportadorTopicos.Formato formatoExportacion;
+        try {
+            formatoExportacion = ExportadorTopicos.Formato.valueOf(formato.toUpperCase());
+        } catch (IllegalArgumentException exception) {
+            throw new ValidacionException("Formato de exportación no soportado: " + formato);
+        }
+
+        var filtros = new ExportadorTopicos.Filtros(curso, status,
+                desde != null ? desde.atStartOfDay() : null,
+                hasta != null ? hasta.atStartOfDay() : null,
+                incluirArchivados);
+
+        var csv = formatoExportacion == ExportadorTopicos.Formato.CSV;
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"topicos." + (csv ? "csv" : "ndjson") + "\"");
+
+        exportadorTopicos.exportar(filtros, formatoExportacion, response.getOutputStream());
     }
 
 //    /**
@@ -111,17 +264,48 @@ public class TopicoController {
 //    }
 
 
+    /**
+     * Endpoint con la cantidad de tópicos activos por curso, status, año y autor.
+     * * Se responde desde los contadores en memoria de EstadisticasTopicos (sin GROUP BY por pedido).
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<DatosEstadisticasTopicos> estadisticas() {
+        return ResponseEntity.ok(estadisticasTopicos.consultar());
+    }
+
     /**
      * Endpoint para obtener el detalle de un tópico específico por su ID.
+     * * El detalle se lee a través de CacheTopicos: los tópicos más consultados no van a MySQL en cada vista.
+     * Los tópicos archivados (cerrados o resueltos, no eliminados) se siguen encontrando por id.
+     * * El cuerpo sale de CacheJsonTopicos (bytes JSON ya serializados por versión); si el JSON supera
+     * 'api.topicos.json.gzip-minimo-bytes' y el cliente acepta gzip, se envía la variante ya comprimida.
+     * * Soporta GET condicional: responde con ETag (id + versión, con sufijo '-gz' en la variante gzip)
+     * y Last-Modified, y si el cliente
+     * envía If-None-Match / If-Modified-Since y el tópico no cambió, devuelve 304 Not Modified
+     * consultando solo la versión (o la cache), sin cargar ni serializar el tópico.
+     * * No abre una transacción propia (un acierto de cache no necesita conexión): las lecturas
+     * del repositorio ya son readOnly y, con la réplica habilitada, van a la réplica.
      * * @param id Identificador único del tópico (recibido via @PathVariable).
-     * @return ResponseEntity con los datos del tópico o 404 si no existe.
+     * @return ResponseEntity con los datos del tópico, 304 si no cambió o 404 si no existe.
      */
     @GetMapping("/{id}")
-    public ResponseEntity detallarTopico(@PathVariable Long id) {
+    public ResponseEntity detallarTopico(@PathVariable Long id, ServletWebRequest request) {
+        // 0. GET CONDICIONAL: si el cliente ya tiene una copia y el tópico no está en cache,
+        // comparamos solo la versión con una proyección por clave primaria.
+        if (esCondicional(request) && cacheTopicos.obtenerSiEstaCargado(id).isEmpty()) {
+            var version = iTopicoRepository.buscarVersion(id).or(() -> iTopicoHistoricoRepository.buscarVersion(id));
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(etagCondicional(request, version.get()), version.get().ultimaModificacionMillis())) {
+                return null; // Spring responde 304 Not Modified sin cuerpo.
+            }
+        }
+
         // 1. VERIFICACIÓN Y CONSULTA:
-        // Buscamos el tópico en la base de datos. Usamos findById porque devuelve un Optional,
-        // lo que nos permite manejar de forma elegante si el ID no existe.
-        var topicoOptional = iTopicoRepository.findById(id);
+        // Buscamos el tópico en la cache (que va a la base de datos solo si no lo tiene).
+        // Devuelve un Optional, lo que nos permite manejar de forma elegante si el ID no existe.
+        var topicoOptional = cacheTopicos.obtener(id);
 
         if (topicoOptional.isEmpty()) {
             // REGLA DE NEGOCIO: Si el ID no se ingresó correctamente o no existe,
@@ -130,87 +314,292 @@ public class TopicoController {
         }
 
         // 2. RESPUESTA:
-        // Si existe, extraemos la entidad y la convertimos a nuestro DTO de respuesta.
+        // La cache ya guarda el DTO de respuesta y su versión (nunca la entidad).
+        // El ETag depende de la variante que se va a enviar (identidad o gzip).
         var topico = topicoOptional.get();
-        return ResponseEntity.ok(new DatosRespuestaTopico(topico));
+        var json = cacheJson.obtener(id, topico.version().version(), topico::datos);
+        var comprimible = cacheJson.comprimible(json);
+        var gzip = comprimible && aceptaGzip(request);
+        var etag = gzip ? topico.version().etagGzip() : topico.version().etag();
+        if (request.checkNotModified(etag, topico.version().ultimaModificacionMillis())) {
+            return null;
+        }
+
+        // 3. Escribimos los bytes JSON ya serializados de esta versión (o su variante gzip), sin pasar por Jackson.
+        var respuesta = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (!comprimible) {
+            return respuesta.body(json.getBytes());
+        }
+        respuesta.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(json.getGzip());
+        }
+        return respuesta.body(json.getBytes());
+    }
+
+    /**
+     * Endpoint para obtener varios tópicos por id en un solo request (ej: GET /topicos?ids=3,1,2).
+     * * Pensado para feeds que muestran tópicos puntuales: un token y un usuario a verificar
+     * y una sola consulta, en lugar de un GET /topicos/{id} por tópico.
+     * * @param ids Ids separados por coma o repetidos (?ids=1&ids=2), como máximo 'api.topicos.lote.max-ids'.
+     * @return Los tópicos en el orden pedido y los ids no encontrados (400 si el lote está vacío o es muy grande).
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<DatosLoteTopicos> detallarLote(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(buscarLote(ids));
+    }
+
+    /**
+     * Igual que GET /topicos?ids=, con los ids en el cuerpo (para lotes que no entran cómodos en la URL).
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<DatosLoteTopicos> detallarLotePorPost(@RequestBody @Valid DatosSolicitudLoteTopicos datos) {
+        return ResponseEntity.ok(buscarLote(datos.ids()));
     }
 
     /**
      * Endpoint para listar tópicos de forma paginada y eficiente.
      * * Utiliza el objeto 'Pageable' de Spring Data para controlar el número de página,
      * el tamaño de la misma y el ordenamiento (ej: /topicos?size=10&page=0&sort=fechaDeCreacion,desc).
+     * * Por defecto solo lee la tabla caliente ('topicos'); con 'incluirArchivados=true' lee la vista
+     * 'topicos_historico', que suma los tópicos movidos a 'topicos_archivo'. Los eliminados nunca se listan.
+     * * El COUNT(*) exacto solo se ejecuta con 'total=exacto'. Por defecto ('aproximado') el total sale
+     * de TotalesAproximadosTopicos, y con 'total=ninguno' se devuelve un Slice (solo 'last' / 'hasNext').
      * * @param paginacion Objeto que captura los parámetros de consulta de la URL.
-     * @return Un objeto Page con los datos del tópico e información de la paginación.
+     * @param incluirArchivados Si es true, incluye los tópicos archivados.
+     * @param total 'aproximado' (por defecto), 'exacto' o 'ninguno'.
+     * @return Una página (o Slice) con los datos del tópico e información de la paginación.
      */
     @GetMapping
-    public ResponseEntity<Page<DatosRespuestaTopico>> listar(@PageableDefault(size = 10, sort = {"fechaDeCreacion"}) Pageable paginacion) {
+    @Transactional(readOnly = true) // Página y total en la misma conexión (la réplica, si está habilitada).
+    public ResponseEntity<Slice<JsonTopico>> listar(@PageableDefault(size = 10, sort = {"fechaDeCreacion"}) Pageable paginacion,
+                                                             @RequestParam(defaultValue = "false") boolean incluirArchivados,
+                                                             @RequestParam(defaultValue = "aproximado") String total,
+                                                             ServletWebRequest request) {
+        var modoTotal = modoTotal(total);
+        if (incluirArchivados) {
+            // Igual que el listado por defecto: Slice sin COUNT sobre la vista y el total según 'total'.
+            var historico = conTotal(iTopicoHistoricoRepository.findAllByActivoTrue(paginacion), modoTotal,
+                    "archivo", iTopicoHistoricoRepository::countByActivoTrue);
+            var versiones = historico.getContent().stream().map(VersionTopico::new).toList();
+            var totalHistorico = historico instanceof Page<TopicoHistorico> paginaConTotal ? paginaConTotal.getTotalElements() : null;
+            var etag = VersionTopico.etagVersiones(versiones, totalHistorico, historico.hasNext(),
+                    historico.getNumber(), historico.getSize(), "archivo");
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            return respuestaListado(historico.map(cacheJson::obtener), modoTotal);
+        }
+
         // 1. Invocamos al repositorio pasando el objeto de paginación.
-        // 2. Spring Data JPA ejecuta un 'SELECT' con 'LIMIT' y 'OFFSET' automáticamente.
-        // 3. Transformamos el contenido de la página (.map) manteniendo la estructura de Page.
+        // 2. Spring Data JPA ejecuta un 'SELECT' con 'LIMIT' y 'OFFSET' automáticamente (sin COUNT).
+        // 3. Completamos el total según el modo pedido y transformamos el contenido (.map).
+        //    Cada tópico se escribe con su JSON ya serializado (CacheJsonTopicos) en lugar de un DTO nuevo.
+
+        //  Con la eliminación lógica, el listado solo muestra los tópicos activos.
+        var pagina = conTotal(iTopicoRepository.findAllByActivoTrue(paginacion), modoTotal,
+                "todos", iTopicoRepository::countByActivoTrue);
+        if (noModificada(request, pagina)) {
+            return null;
+        }
+        var page = pagina.map(cacheJson::obtener);
 
-        //  Return para utilizar con el método de eliminación física.
-        var page = iTopicoRepository.findAll(paginacion).map(DatosRespuestaTopico::new);
+        // 4. Retornamos la respuesta envuelta en un ResponseEntity con estatus 200 OK
+        return respuestaListado(page, modoTotal);
+    }
 
-        //  Return para utilizar con el método de eliminación lógica.
-        //var page = iTopicoRepository.findAllByActivoTrue(paginacion).map(DatosRespuestaTopico::new);
+    /**
+     * Endpoint para listar tópicos paginados por cursor (keyset) en orden (fechaDeCreacion, id).
+     * * A diferencia de OFFSET, el costo de cada página es el mismo sin importar su profundidad,
+     * porque la consulta arranca directamente desde la posición del cursor usando el índice compuesto.
+     * * El COUNT(*) solo se ejecuta si el cliente lo pide con 'contar=true'.
+     * * @param cursor Cursor opaco recibido en una respuesta anterior (null para la primera página).
+     * @param direccion 'siguiente' (por defecto) o 'anterior'.
+     * @param size Cantidad de tópicos por página (máximo 100).
+     * @param contar Si es true, se incluye el total de tópicos en la respuesta.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<DatosPaginaCursorTopico> listarPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "siguiente") String direccion,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean contar,
+            ServletWebRequest request) {
+
+        var limite = Math.min(Math.max(size, 1), 100);
+        // Pedimos un registro extra para saber si hay más páginas sin necesidad de contar.
+        var pedido = PageRequest.of(0, limite + 1);
+        var haciaAtras = cursor != null && "anterior".equalsIgnoreCase(direccion);
+
+        List<Topico> filas;
+        if (cursor == null) {
+            filas = iTopicoRepository.primeraPaginaPorCursor(pedido);
+        } else {
+            var posicion = CursorTopico.decodificar(cursor);
+            filas = haciaAtras
+                    ? iTopicoRepository.paginaAnteriorPorCursor(posicion.fechaDeCreacion(), posicion.id(), pedido)
+                    : iTopicoRepository.paginaSiguientePorCursor(posicion.fechaDeCreacion(), posicion.id(), pedido);
+        }
 
-        // 4. Retornamos la respuesta envuelta en un ResponseEntity con estatus 200 OK
-        return ResponseEntity.ok(page);
+        var hayMas = filas.size() > limite;
+        filas = new ArrayList<>(hayMas ? filas.subList(0, limite) : filas);
+        if (haciaAtras) {
+            // La consulta hacia atrás viene en orden descendente: la devolvemos en el orden natural.
+            Collections.reverse(filas);
+        }
+
+        String siguiente = null;
+        String anterior = null;
+        if (!filas.isEmpty()) {
+            var primero = new CursorTopico(filas.get(0)).codificar();
+            var ultimo = new CursorTopico(filas.get(filas.size() - 1)).codificar();
+            siguiente = (haciaAtras || hayMas) ? ultimo : null;
+            anterior = haciaAtras ? (hayMas ? primero : null) : (cursor != null ? primero : null);
+        }
+
+        var total = contar ? iTopicoRepository.countByActivoTrue() : null;
+        if (request.checkNotModified(VersionTopico.etagPagina(filas, siguiente, anterior, total))) {
+            return null;
+        }
+        var contenido = filas.stream().map(DatosRespuestaTopico::new).toList();
+        return ResponseEntity.ok(new DatosPaginaCursorTopico(contenido, siguiente, anterior, total));
     }
 
     /**
      * Endpoint para listar tópicos con filtros de búsqueda opcionales.
-     * * Criterios: Nombre del curso (búsqueda parcial) y año específico.
-     * * @param curso Nombre o parte del nombre del curso.
-     * @param anio Año de creación (ej: 2026).
+     * * Criterios: Nombre del curso (búsqueda por prefijo, sin distinguir mayúsculas ni tildes)
+     * y año específico. Cada filtro se puede usar solo o combinado con el otro.
+     * * @param curso Nombre o comienzo del nombre del curso.
+     * @param anio Año de creación (ej: 2026), entre ANIO_MINIMO y ANIO_MAXIMO (400 si está fuera de rango).
      * @param paginacion Configuración de página y orden.
+     * @param total 'aproximado' (por defecto), 'exacto' o 'ninguno' (igual que en el listado general).
      */
     @GetMapping("/buscar")
-    public ResponseEntity<Page<DatosRespuestaTopico>> listarConFiltros(
+    @Transactional(readOnly = true)
+    public ResponseEntity<Slice<JsonTopico>> listarConFiltros(
             @RequestParam(required = false) String curso,
             @RequestParam(required = false) Integer anio,
-            @PageableDefault(size = 10, sort = "fechaDeCreacion") Pageable paginacion) {
+            @PageableDefault(size = 10, sort = "fechaDeCreacion") Pageable paginacion,
+            @RequestParam(defaultValue = "aproximado") String total,
+            ServletWebRequest request) {
 
-        Page<Topico> pagina;
+        var modoTotal = modoTotal(total);
+        Slice<Topico> pagina;
+
+        if (anio != null && (anio < ANIO_MINIMO || anio > ANIO_MAXIMO)) {
+            throw new ValidacionException("El año debe estar entre " + ANIO_MINIMO + " y " + ANIO_MAXIMO);
+        }
+
+        var filtrarCurso = curso != null && !curso.isBlank();
+        var prefijoCurso = filtrarCurso ? NormalizadorTexto.patronPrefijo(curso) : null;
+
+        // El año se transforma en el rango [1 de enero, 1 de enero del año siguiente),
+        // así la base de datos puede usar el índice sobre fecha_de_creacion.
+        var desde = anio != null ? LocalDate.of(anio, 1, 1).atStartOfDay() : null;
+        var hasta = anio != null ? desde.plusYears(1) : null;
 
         // Lógica de filtrado:
-        if (curso != null && anio != null) {
-            // Si ambos filtros están presentes, usamos el método personalizado
-            pagina = iTopicoRepository.buscarPorCursoYAnio(curso, anio, paginacion);
+        // La clave del filtro identifica el total aproximado guardado para esta combinación.
+        var filtro = "curso=" + prefijoCurso + "&anio=" + anio;
+        if (filtrarCurso && anio != null) {
+            pagina = conTotal(iTopicoRepository.buscarPorCursoYFecha(prefijoCurso, desde, hasta, paginacion), modoTotal,
+                    filtro, () -> iTopicoRepository.contarPorCursoYFecha(prefijoCurso, desde, hasta));
+        } else if (filtrarCurso) {
+            pagina = conTotal(iTopicoRepository.buscarPorCurso(prefijoCurso, paginacion), modoTotal,
+                    filtro, () -> iTopicoRepository.contarPorCurso(prefijoCurso));
+        } else if (anio != null) {
+            pagina = conTotal(iTopicoRepository.buscarPorFecha(desde, hasta, paginacion), modoTotal,
+                    filtro, () -> iTopicoRepository.contarPorFecha(desde, hasta));
         } else {
             // Si no hay filtros, devolvemos el listado normal
-            pagina = iTopicoRepository.findAll(paginacion);
+            pagina = conTotal(iTopicoRepository.findAllByActivoTrue(paginacion), modoTotal,
+                    "todos", iTopicoRepository::countByActivoTrue);
         }
 
-        // Transformamos la página de Entidades a DTOs
-        var respuesta = pagina.map(DatosRespuestaTopico::new);
-        return ResponseEntity.ok(respuesta);
+        if (noModificada(request, pagina)) {
+            return null;
+        }
+
+        // Transformamos la página de Entidades a su JSON ya serializado
+        var respuesta = pagina.map(cacheJson::obtener);
+        return respuestaListado(respuesta, modoTotal);
+    }
+
+    /**
+     * Endpoint SSE (text/event-stream) que envía los tópicos creados, actualizados y eliminados.
+     * * Cada evento lleva id (secuencia), nombre ('creado', 'actualizado', 'eliminado') y un DatosEventoTopico en JSON.
+     * * Si el cliente se reconecta con Last-Event-ID recibe los eventos que se perdió; si ya no están
+     * retenidos recibe un evento 'desfasado' y debe volver a cargar el listado.
+     * * @param curso Opcional: solo eventos de cursos que empiecen con este texto (sin distinguir tildes).
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) String curso,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEventoId) {
+        return canalEventos.suscribir(curso, ultimoEventoId);
+    }
+
+    /**
+     * Endpoint de búsqueda de texto sobre el título y el mensaje de los tópicos.
+     * * Se resuelve completamente en memoria con el IndiceBusquedaTopicos (no consulta MySQL).
+     * * No distingue mayúsculas ni tildes; los resultados vienen ordenados por relevancia.
+     * * @param q Texto a buscar.
+     * @param page Número de página (desde 0).
+     * @param size Cantidad de resultados por página (máximo 100).
+     * @return Página de resultados junto con el total de coincidencias y el tiempo de la consulta.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<DatosResultadoBusquedaTopicos> buscarTexto(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        var resultado = indiceBusqueda.buscar(q, Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+        return ResponseEntity.ok(resultado);
     }
 
     /**
      * Endpoint para actualizar los datos de un tópico existente.
+     * * Si el tópico estaba archivado (cerrado o resuelto), primero vuelve a la tabla caliente.
      * * @param datos DTO que contiene el ID del tópico y los campos a modificar.
      * @return ResponseEntity con el código 200 OK y los datos actualizados.
      */
     @PutMapping
     @Transactional
     public ResponseEntity actualizar(@RequestBody @Valid DatosActualizacionTopico datos) {
-        // 1. Buscamos la referencia del tópico en la base de datos por su ID.
-        // getReferenceById es eficiente porque no trae todos los datos de inmediato (Lazy).
-        Topico topico = iTopicoRepository.getReferenceById(datos.id());
+        // 1. Buscamos el tópico (con su autor) en la base de datos por su ID.
+        // Si no está en 'topicos' puede estar archivado: lo devolvemos a la tabla caliente para editarlo.
+        var topicoOptional = iTopicoRepository.findById(datos.id());
+        var restaurado = topicoOptional.isEmpty() && archivadorTopicos.restaurar(datos.id());
+        if (restaurado) {
+            topicoOptional = iTopicoRepository.findById(datos.id());
+        }
+        if (topicoOptional.isEmpty() || !Boolean.TRUE.equals(topicoOptional.get().getActivo())) {
+            // Un tópico inexistente o eliminado lógicamente ya no se puede editar.
+            return ResponseEntity.notFound().build();
+        }
+        Topico topico = topicoOptional.get();
 
         // 2. Ejecutamos la lógica de actualización definida en la entidad.
         // Al estar dentro de una @Transactional, Hibernate detecta los cambios
         // y hace el UPDATE en la base de datos automáticamente al terminar el método.
+        var claveAnterior = EstadisticasTopicos.Clave.de(topico);
         topico.actualizarDatos(datos);
+        estadisticasTopicos.actualizar(claveAnterior, topico);
+        filtroDuplicados.agregar(topico.getHashContenido());
 
         // 3. Retornamos un 200 OK junto con el DTO de respuesta.
         // Usamos DatosRespuestaTopico para no exponer la entidad completa y mantener la coherencia.
-        return ResponseEntity.ok(new DatosRespuestaTopico(topico));
+        var datosRespuesta = new DatosRespuestaTopico(topico);
+        indiceBusqueda.indexar(datosRespuesta);
+        cacheTopicos.invalidar(topico.getId());
+        cacheJson.invalidar(topico.getId());
+        canalEventos.publicar(DatosEventoTopico.Tipo.ACTUALIZADO, topico.getId(), topico.getCurso(), datosRespuesta);
+        return ResponseEntity.ok(datosRespuesta);
     }
 
     /**
      * Endpoint para eliminar un tópico del sistema.
+     * * Un tópico archivado sin eliminar vuelve a 'topicos' y se elimina ahí (el archivador lo vuelve a mover).
      * * @param id El identificador único del tópico recibido en la URL.
      * @return 204 No Content si la operación es exitosa, o 404 Not Found si el ID no existe.
      */
@@ -219,20 +608,28 @@ public class TopicoController {
     public ResponseEntity eliminar(@PathVariable Long id) {
         // 1. VERIFICACIÓN: Validamos que el tópico exista antes de intentar borrarlo.
         // Esto evita excepciones innecesarias y nos permite dar una respuesta clara (404).
-        if (!iTopicoRepository.existsById(id)) {
-            // Si no existe, devolvemos un 404 para informar al cliente.
+        // Si no está en 'topicos' puede estar archivado: lo devolvemos a la tabla caliente para eliminarlo.
+        if (!iTopicoRepository.existsByIdAndActivoTrue(id) && !archivadorTopicos.restaurar(id)) {
+            // Si no existe (o ya fue eliminado), devolvemos un 404 para informar al cliente.
             return ResponseEntity.notFound().build();
         }
 
         // 2.
         // OPCIÓN A: ELIMINACIÓN FÍSICA: Se ejecuta un DELETE directo en la base de datos.
-        iTopicoRepository.deleteById(id);
+        //iTopicoRepository.deleteById(id);
 
         // 2.
         // OPCIÓN B: Eliminación lógica (Recomendada para FORO HUB).
         // Cambia el campo 'activo' a false para que no aparezca en los listados pero persista la historia.
-        //var topico = iTopicoRepository.getReferenceById(id);
-        //topico.eliminar(); // Este método en la Entidad hace: this.activo = false;
+        // Más adelante ArchivadorTopicos lo mueve a 'topicos_archivo' para mantener chica la tabla caliente.
+        var topico = iTopicoRepository.getReferenceById(id);
+        topico.eliminar(); // Este método en la Entidad hace: this.activo = false;
+        // Los archivados sin eliminar también se cuentan: se resta igual que uno de la tabla caliente.
+        estadisticasTopicos.quitar(topico);
+        indiceBusqueda.quitar(id);
+        cacheTopicos.invalidar(id);
+        cacheJson.invalidar(id);
+        canalEventos.publicar(DatosEventoTopico.Tipo.ELIMINADO, id, topico.getCurso(), null);
 
         // 3.
         // OPCIÓN A.
@@ -247,4 +644,145 @@ public class TopicoController {
         //var datosRespuesta = new DatosRespuestaTopico(topico);
         //return ResponseEntity.ok(datosRespuesta);
     }
+
+    private static boolean esCondicional(ServletWebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * ETag a comparar en el 304 anticipado, cuando todavía no se sabe si el JSON del tópico se comprime.
+     * * Si el cliente acepta gzip le sirve tanto la variante gzip como la identidad; si no, solo la identidad
+     * (así una cache nunca reutiliza el cuerpo gzip para un cliente que no lo entiende).
+     */
+    private static String etagCondicional(ServletWebRequest request, VersionTopico version) {
+        var siNoCoincide = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (siNoCoincide != null && siNoCoincide.contains(version.etagGzip()) && aceptaGzip(request)) {
+            return version.etagGzip();
+        }
+        return version.etag();
+    }
+
+    /**
+     * Calcula el ETag de una página ya leída (antes de mapearla y serializarla)
+     * y responde si el cliente ya tiene esa misma página.
+     * * Las páginas no llevan Last-Modified: la fecha más reciente de sus filas no cambia cuando un
+     * tópico se elimina o se archiva y otro más viejo entra en la página, y el 304 sería incorrecto.
+     */
+    private static boolean noModificada(ServletWebRequest request, Slice<Topico> pagina) {
+        var total = pagina instanceof Page<Topico> paginaConTotal ? paginaConTotal.getTotalElements() : null;
+        var etag = VersionTopico.etagPagina(pagina.getContent(), total, pagina.hasNext(), pagina.getNumber(), pagina.getSize());
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * Resuelve un lote de ids: primero los que ya están en CacheTopicos y el resto con un único
+     * SELECT ... IN (con el autor). Respeta el orden del pedido e ignora los ids repetidos.
+     * * Solo si faltan ids se hace un segundo SELECT ... IN sobre 'topicos_historico' (tópicos archivados).
+     */
+    private DatosLoteTopicos buscarLote(List<Long> ids) {
+        // El tope se controla antes de copiar los ids (los repetidos también cuentan).
+        if (ids.size() > maxIdsLote) {
+            throw new ValidacionException("Se pueden pedir como máximo " + maxIdsLote + " tópicos por lote");
+        }
+        var pedidos = new LinkedHashSet<Long>(ids);
+        pedidos.remove(null);
+        if (pedidos.isEmpty()) {
+            throw new ValidacionException("Debe indicar al menos un id de tópico");
+        }
+
+        var encontrados = new HashMap<Long, JsonTopico>();
+        var sinCache = new ArrayList<Long>();
+        for (var id : pedidos) {
+            var cacheado = cacheTopicos.obtenerSiEstaCargado(id);
+            if (cacheado.isPresent()) {
+                var topico = cacheado.get();
+                encontrados.put(id, cacheJson.obtener(id, topico.version().version(), topico::datos));
+            } else {
+                sinCache.add(id);
+            }
+        }
+        if (!sinCache.isEmpty()) {
+            iTopicoRepository.findAllByIdInAndActivoTrue(sinCache)
+                    .forEach(topico -> encontrados.put(topico.getId(), cacheJson.obtener(topico)));
+        }
+        var archivados = sinCache.stream().filter(id -> !encontrados.containsKey(id)).toList();
+        if (!archivados.isEmpty()) {
+            iTopicoHistoricoRepository.findAllByIdInAndActivoTrue(archivados)
+                    .forEach(topico -> encontrados.put(topico.getId(), cacheJson.obtener(topico)));
+        }
+
+        var topicos = new ArrayList<JsonTopico>(encontrados.size());
+        var noEncontrados = new ArrayList<Long>();
+        for (var id : pedidos) {
+            var json = encontrados.get(id);
+            if (json != null) {
+                topicos.add(json);
+            } else {
+                noEncontrados.add(id);
+            }
+        }
+        return new DatosLoteTopicos(topicos, noEncontrados);
+    }
+
+    /**
+     * El cliente acepta gzip si lo menciona en Accept-Encoding (y no lo descarta con q=0).
+     */
+    private static boolean aceptaGzip(ServletWebRequest request) {
+        var aceptadas = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (aceptadas == null) {
+            return false;
+        }
+        for (var codificacion : aceptadas.split(",")) {
+            var partes = codificacion.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static TotalesAproximadosTopicos.Modo modoTotal(String total) {
+        try {
+            return TotalesAproximadosTopicos.Modo.valueOf(total.toUpperCase());
+        } catch (IllegalArgumentException exception) {
+            throw new ValidacionException("Modo de total no soportado: " + total + " (use exacto, aproximado o ninguno)");
+        }
+    }
+
+    /**
+     * Completa un Slice (sin COUNT) con el total que pidió el cliente.
+     * * EXACTO ejecuta 'contar'; APROXIMADO usa el total guardado para el filtro (nunca menor
+     * a lo que el propio Slice demuestra que existe, y exacto en la última página); NINGUNO devuelve el Slice tal cual.
+     */
+    private <T> Slice<T> conTotal(Slice<T> filas, TotalesAproximadosTopicos.Modo modo, String filtro, LongSupplier contar) {
+        return switch (modo) {
+            case NINGUNO -> filas;
+            case EXACTO -> new PageImpl<>(filas.getContent(), filas.getPageable(), contar.getAsLong());
+            case APROXIMADO -> {
+                var offset = filas.getPageable().getOffset();
+                if (!filas.hasNext() && (filas.hasContent() || offset == 0)) {
+                    // La última página ya dice cuántas filas hay: no hace falta el total guardado (puede estar viejo).
+                    var exacto = offset + filas.getNumberOfElements();
+                    totalesAproximados.corregir(filtro, exacto);
+                    yield new PageImpl<>(filas.getContent(), filas.getPageable(), exacto);
+                }
+                var minimo = offset + filas.getNumberOfElements() + (filas.hasNext() ? 1 : 0);
+                var aproximado = totalesAproximados.obtener(filtro, contar);
+                yield new PageImpl<>(filas.getContent(), filas.getPageable(), Math.max(aproximado, minimo));
+            }
+        };
+    }
+
+    /**
+     * Con el total aproximado se agrega el encabezado 'X-Total-Aproximado: true' para que el cliente lo sepa.
+     */
+    private static ResponseEntity<Slice<JsonTopico>> respuestaListado(Slice<JsonTopico> pagina,
+                                                                      TotalesAproximadosTopicos.Modo modo) {
+        var respuesta = ResponseEntity.ok();
+        if (modo == TotalesAproximadosTopicos.Modo.APROXIMADO) {
+            respuesta.header("X-Total-Aproximado", "true");
+        }
+        return respuesta.body(pagina);
+    }
 }
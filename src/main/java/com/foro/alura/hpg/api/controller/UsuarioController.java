@@ -3,7 +3,10 @@ package com.foro.alura.hpg.api.controller;
 import com.foro.alura.hpg.api.domain.usuario.DatosRegistroUsuario;
 import com.foro.alura.hpg.api.domain.usuario.IUsuarioRepository;
 import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import com.foro.alura.hpg.api.infra.security.CachePrincipales;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -15,6 +18,8 @@ import org.springframework.web.bind.annotation.RestController;
                               //  la URL específica y es acá donde deberemos mapearla.
 public class UsuarioController {
 
+    private static final Logger log = LoggerFactory.getLogger(UsuarioController.class);
+
     /**
      * Inyección de dependencias del repositorio de Usuarios.
      * * Gracias a la anotación @Autowired, Spring Boot localiza la implementación
@@ -25,6 +30,14 @@ public class UsuarioController {
     @Autowired
     private IUsuarioRepository iUsuarioRepository;
 
+    /**
+     * Cache de usuarios autenticados que usa el SecurityFilter.
+     * * Cada vez que se guarda o modifica un Usuario invalidamos su entrada
+     * para que el siguiente request vuelva a leerlo desde la base de datos.
+     */
+    @Autowired
+    private CachePrincipales cachePrincipales;
+
 
 //    @PostMapping
 //    public void registrar(@RequestBody String json) {  //  Con esto le decimos que el parámetro recibido es un String
@@ -35,11 +48,13 @@ public class UsuarioController {
     @PostMapping
     public void registrar(@RequestBody @Valid DatosRegistroUsuario datos) {  //  Con esto le decimos que el parámetro recibido es un String
         //  que viene especificamente en el 'body' de la request.
-        System.out.println("JSON para usuario: " + datos);
+        // Solo el email: el Record completo incluye la contraseña.
+        log.debug("Registro de usuario: {}", datos.email());
 
         Usuario usuario = new Usuario(datos);
 
         iUsuarioRepository.save(usuario);
+        cachePrincipales.invalidar(usuario.getEmail());
 
     }
 
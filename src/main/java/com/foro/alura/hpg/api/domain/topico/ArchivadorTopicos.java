@@ -0,0 +1,225 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Mueve a 'topicos_archivo' los tópicos que ya no necesitan estar en la tabla caliente:
+ * eliminados lógicamente, cerrados, resueltos o inactivos cuya última modificación supera 'antiguedad-dias'.
+ * * Trabaja en lotes chicos de 'tamanio-lote' filas, cada uno en su propia transacción,
+ * con una pausa entre lotes para no competir con el tráfico normal por conexiones y locks.
+ * Una pasada puede tardar minutos: por eso el scheduler tiene varios hilos (spring.task.scheduling.pool.size)
+ * y el resto de las tareas programadas no espera a que termine.
+ * * Los candidatos se buscan por id (keyset) sin bloquear nada: con REPEATABLE READ, un FOR UPDATE sobre
+ * esa búsqueda (sin índice para la condición) bloquearía cada fila y hueco recorrido, y frenaría las altas.
+ * Después se bloquean solo esos ids (FOR UPDATE por clave primaria) volviendo a evaluar la condición:
+ * un tópico reabierto por otro pedido mientras tanto deja de cumplirla y no se mueve.
+ * * Los tópicos archivados sin eliminar siguen en el índice de búsqueda (se leen por id y se listan con
+ * 'incluirArchivados'); solo los eliminados se quitan.
+ * * Un tópico archivado sin eliminar se sigue leyendo por id (ver CacheTopicos) y, si se modifica,
+ * vuelve a 'topicos' con restaurar().
+ * * Archivar y restaurar no cambian EstadisticasTopicos: los contadores incluyen los tópicos archivados.
+ */
+@Service
+public class ArchivadorTopicos {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivadorTopicos.class);
+
+    private static final String CONDICION_ARCHIVABLE = """
+            (activo = 0 or status in ('CERRADO', 'RESUELTO', 'INACTIVO'))
+            and fecha_de_actualizacion < :limite
+            """;
+
+    private static final String SQL_CANDIDATOS = """
+            select id from topicos
+            where id > :ultimoId and
+            """ + CONDICION_ARCHIVABLE + """
+            order by id
+            limit :tamanioLote
+            """;
+
+    private static final String SQL_BLOQUEAR = """
+            select id, activo from topicos
+            where id in (:ids) and
+            """ + CONDICION_ARCHIVABLE + """
+            for update
+            """;
+
+    private static final String SQL_COPIAR = """
+            insert into topicos_archivo
+                (id, titulo, mensaje, fecha_de_creacion, fecha_de_actualizacion, fecha_de_archivo, status, curso,
+                 curso_normalizado, hash_contenido, usuario_id, activo, version)
+            select id, titulo, mensaje, fecha_de_creacion, fecha_de_actualizacion, :ahora, status, curso,
+                   curso_normalizado, hash_contenido, usuario_id, activo, version
+            from topicos
+            where id in (:ids)
+            """;
+
+    private static final String SQL_BORRAR = "delete from topicos where id in (:ids)";
+
+    private static final String SQL_RESTAURAR = """
+            insert into topicos
+                (id, titulo, mensaje, fecha_de_creacion, fecha_de_actualizacion, status, curso,
+                 curso_normalizado, hash_contenido, usuario_id, activo, version)
+            select id, titulo, mensaje, fecha_de_creacion, fecha_de_actualizacion, status, curso,
+                   curso_normalizado, hash_contenido, usuario_id, activo, version
+            from topicos_archivo
+            where id = :id and activo = 1
+            """;
+
+    private static final String SQL_BORRAR_ARCHIVADO = "delete from topicos_archivo where id = :id";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheTopicos cacheTopicos;
+
+    @Autowired
+    private CacheJsonTopicos cacheJson;
+
+    @Autowired
+    private IndiceBusquedaTopicos indiceBusqueda;
+
+    @Value("${api.topicos.archivo.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${api.topicos.archivo.antiguedad-dias:90}")
+    private int antiguedadDias;
+
+    @Value("${api.topicos.archivo.tamanio-lote:200}")
+    private int tamanioLote;
+
+    @Value("${api.topicos.archivo.pausa-entre-lotes-ms:250}")
+    private long pausaEntreLotesMs;
+
+    @Value("${api.topicos.archivo.max-lotes-por-ejecucion:100}")
+    private int maxLotesPorEjecucion;
+
+    @Scheduled(initialDelayString = "${api.topicos.archivo.demora-inicial-ms:300000}",
+            fixedDelayString = "${api.topicos.archivo.intervalo-ms:3600000}")
+    public void archivarProgramado() {
+        if (habilitado) {
+            archivar();
+        }
+    }
+
+    /**
+     * Ejecuta una pasada de archivado y devuelve la cantidad de tópicos movidos.
+     * * Se detiene al recorrer toda la tabla o al llegar a 'max-lotes-por-ejecucion';
+     * lo que quede pendiente se mueve en la próxima ejecución.
+     */
+    public int archivar() {
+        var inicio = System.nanoTime();
+        var limite = Timestamp.valueOf(LocalDateTime.now().minusDays(antiguedadDias));
+        var ultimoId = 0L;
+        var movidos = 0;
+
+        for (int lote = 0; lote < maxLotesPorEjecucion; lote++) {
+            var candidatos = buscarCandidatos(ultimoId, limite);
+            if (candidatos.isEmpty()) {
+                break;
+            }
+            var movidosLote = transactionTemplate.execute(estado -> moverLote(candidatos, limite));
+            movidos += movidosLote == null ? 0 : movidosLote;
+            ultimoId = candidatos.get(candidatos.size() - 1);
+
+            if (candidatos.size() < tamanioLote || !pausar()) {
+                break;
+            }
+        }
+
+        if (movidos > 0) {
+            log.info("Archivado de tópicos: {} movidos a topicos_archivo en {} ms", movidos, (System.nanoTime() - inicio) / 1_000_000);
+        }
+        return movidos;
+    }
+
+    /**
+     * Devuelve a 'topicos' un tópico archivado que no fue eliminado, para poder modificarlo o eliminarlo.
+     * * Debe llamarse dentro de la transacción de esa escritura. Devuelve false si el tópico no estaba archivado.
+     */
+    public boolean restaurar(Long id) {
+        var parametros = new MapSqlParameterSource("id", id);
+        if (jdbcTemplate.update(SQL_RESTAURAR, parametros) == 0) {
+            return false;
+        }
+        jdbcTemplate.update(SQL_BORRAR_ARCHIVADO, parametros);
+        cacheTopicos.invalidar(id);
+        cacheJson.invalidar(id);
+        return true;
+    }
+
+    /**
+     * Siguiente lote de candidatos por id, sin transacción ni bloqueos (ver la documentación de la clase).
+     */
+    private List<Long> buscarCandidatos(long ultimoId, Timestamp limite) {
+        var parametros = new MapSqlParameterSource()
+                .addValue("ultimoId", ultimoId)
+                .addValue("limite", limite)
+                .addValue("tamanioLote", tamanioLote);
+        return jdbcTemplate.queryForList(SQL_CANDIDATOS, parametros, Long.class);
+    }
+
+    /**
+     * Bloquea por clave primaria los candidatos que siguen cumpliendo la condición y los mueve al archivo.
+     * * @return Cantidad de tópicos movidos.
+     */
+    private int moverLote(List<Long> candidatos, Timestamp limite) {
+        var eliminados = new HashSet<Long>();
+        var ids = jdbcTemplate.query(SQL_BLOQUEAR,
+                new MapSqlParameterSource().addValue("ids", candidatos).addValue("limite", limite),
+                (fila, numero) -> {
+                    var id = fila.getLong("id");
+                    if (!fila.getBoolean("activo")) {
+                        eliminados.add(id);
+                    }
+                    return id;
+                });
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        var porIds = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("ahora", Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(SQL_COPIAR, porIds);
+        jdbcTemplate.update(SQL_BORRAR, porIds);
+
+        // Cache e índice se actualizan recién después del commit del lote (ver DespuesDelCommit).
+        ids.forEach(id -> {
+            cacheTopicos.invalidar(id);
+            cacheJson.invalidar(id);
+        });
+        eliminados.forEach(indiceBusqueda::quitar);
+        return ids.size();
+    }
+
+    private boolean pausar() {
+        if (pausaEntreLotesMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausaEntreLotesMs);
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foro.alura.hpg.api.infra.transaccion.DespuesDelCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache del JSON ya serializado de cada tópico (JsonTopico), para el detalle y los listados.
+ * * La clave es el id y cada entrada recuerda la versión (@Version) con la que se serializó:
+ * si el tópico cambió, la versión no coincide y se vuelve a serializar, así que nunca se
+ * responde un JSON viejo aunque una invalidación se pierda.
+ * * El TopicoController invalida las entradas al actualizar o eliminar, y el ArchivadorTopicos al archivar.
+ * * Usa el ObjectMapper de Spring: los bytes son idénticos a los que generaría Jackson en cada request.
+ */
+@Component
+public class CacheJsonTopicos {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Long, JsonTopico> entradas = new ConcurrentHashMap<>();
+    private final int maxEntradas;
+    private final boolean gzipHabilitado;
+    private final int gzipMinimoBytes;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    public CacheJsonTopicos(@Value("${api.topicos.json.max-entradas:20000}") int maxEntradas,
+                            @Value("${api.topicos.json.gzip:true}") boolean gzipHabilitado,
+                            @Value("${api.topicos.json.gzip-minimo-bytes:256}") int gzipMinimoBytes) {
+        this.maxEntradas = maxEntradas;
+        this.gzipHabilitado = gzipHabilitado;
+        this.gzipMinimoBytes = gzipMinimoBytes;
+    }
+
+    /**
+     * JSON del tópico en su versión actual. El DTO solo se construye (y serializa) si no está en cache.
+     */
+    public JsonTopico obtener(Long id, Long version, Supplier<DatosRespuestaTopico> datos) {
+        var actual = entradas.get(id);
+        if (actual != null && Objects.equals(actual.getVersion(), version)) {
+            aciertos.increment();
+            return actual;
+        }
+
+        fallos.increment();
+        var nuevo = serializar(version, datos.get());
+        hacerLugar();
+        entradas.put(id, nuevo);
+        return nuevo;
+    }
+
+    public JsonTopico obtener(Topico topico) {
+        return obtener(topico.getId(), topico.getVersion(), () -> new DatosRespuestaTopico(topico));
+    }
+
+    public JsonTopico obtener(TopicoHistorico topico) {
+        return obtener(topico.getId(), topico.getVersion(), () -> new DatosRespuestaTopico(topico));
+    }
+
+    /**
+     * Indica si conviene responder la variante gzip (habilitada y el JSON supera el mínimo configurado).
+     */
+    public boolean comprimible(JsonTopico json) {
+        return gzipHabilitado && json.getBytes().length >= gzipMinimoBytes;
+    }
+
+    /**
+     * Descarta el JSON del tópico una vez confirmada la transacción actual.
+     */
+    public void invalidar(Long id) {
+        DespuesDelCommit.ejecutar(() -> entradas.remove(id));
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public int getTamanio() {
+        return entradas.size();
+    }
+
+    private JsonTopico serializar(Long version, DatosRespuestaTopico datos) {
+        try {
+            return new JsonTopico(version, objectMapper.writeValueAsBytes(datos));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("No se pudo serializar el tópico " + datos.id(), exception);
+        }
+    }
+
+    private void hacerLugar() {
+        // Si la cache está llena, liberamos lugares cualquiera para no crecer sin límite.
+        var iterador = entradas.keySet().iterator();
+        while (entradas.size() >= maxEntradas && iterador.hasNext()) {
+            iterador.next();
+            iterador.remove();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import com.foro.alura.hpg.api.infra.transaccion.DespuesDelCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de lectura (read-through) del detalle de tópicos, delante de ITopicoRepository.findById.
+ * * Si el tópico ya no está en 'topicos' se busca en la vista 'topicos_historico': los tópicos
+ * cerrados o resueltos que se archivaron se siguen viendo por id.
+ * * Las cargas van siempre al primario (aunque la réplica de lectura esté habilitada): una fila atrasada
+ * de la réplica quedaría en cache hasta que venza.
+ * * Guarda copias inmutables (DatosRespuestaTopico + VersionTopico), nunca entidades administradas.
+ * * Si varios requests piden el mismo id que no está en cache, solo el primero va a la base de datos:
+ * el resto espera el mismo CompletableFuture.
+ * * Las entradas viven como máximo 'ttl-segundos', la cache nunca supera 'max-entradas',
+ * y el TopicoController las invalida al actualizar o eliminar (después del commit).
+ * * Las vencidas se descartan al consultarlas y en una purga periódica ('purga-ms'); al llenarse
+ * se libera un lugar cualquiera, en O(1), como en CachePrincipales.
+ */
+@Component
+public class CacheTopicos {
+
+    @Autowired
+    private ITopicoRepository iTopicoRepository;
+
+    @Autowired
+    private ITopicoHistoricoRepository iTopicoHistoricoRepository;
+
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder tiempoCargaNanos = new LongAdder();
+
+    public CacheTopicos(@Value("${api.topicos.cache.ttl-segundos:300}") long ttlSegundos,
+                        @Value("${api.topicos.cache.max-entradas:10000}") int maxEntradas) {
+        this.ttlNanos = Duration.ofSeconds(ttlSegundos).toNanos();
+        this.maxEntradas = maxEntradas;
+    }
+
+    /**
+     * Devuelve el tópico desde la cache o, si no está, lo carga desde la base de datos.
+     */
+    public Optional<TopicoCacheado> obtener(Long id) {
+        var ahora = System.nanoTime();
+        var actual = entradas.get(id);
+
+        if (actual != null && ahora - actual.creadaEn() <= ttlNanos) {
+            aciertos.increment();
+            return actual.futuro().join();
+        }
+
+        if (actual != null && entradas.remove(id, actual)) {
+            desalojos.increment();
+        }
+
+        fallos.increment();
+        var nueva = new Entrada(new CompletableFuture<>(), ahora);
+        var existente = entradas.putIfAbsent(id, nueva);
+        if (existente != null) {
+            // Otro request ya está cargando este id: esperamos su resultado en lugar de repetir la consulta.
+            return existente.futuro().join();
+        }
+
+        hacerLugar(id);
+        try {
+            var valor = cargar(id);
+            nueva.futuro().complete(valor);
+            if (valor.isEmpty()) {
+                // No cacheamos los inexistentes: un alta posterior debe verse de inmediato.
+                entradas.remove(id, nueva);
+            }
+            return valor;
+        } catch (RuntimeException exception) {
+            entradas.remove(id, nueva);
+            nueva.futuro().completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * Devuelve el tópico solo si ya está cargado y vigente, sin ir nunca a la base de datos.
+     */
+    public Optional<TopicoCacheado> obtenerSiEstaCargado(Long id) {
+        var actual = entradas.get(id);
+        if (actual == null || !actual.futuro().isDone() || actual.futuro().isCompletedExceptionally()
+                || System.nanoTime() - actual.creadaEn() > ttlNanos) {
+            return Optional.empty();
+        }
+        aciertos.increment();
+        return actual.futuro().join();
+    }
+
+    /**
+     * Descarta la entrada del tópico una vez confirmada la transacción actual.
+     */
+    public void invalidar(Long id) {
+        DespuesDelCommit.ejecutar(() -> entradas.remove(id));
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public double getTasaAciertos() {
+        var total = aciertos.sum() + fallos.sum();
+        return total == 0 ? 0 : (double) aciertos.sum() / total;
+    }
+
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+
+    public long getCargas() {
+        return cargas.sum();
+    }
+
+    public long getTiempoCargaNanos() {
+        return tiempoCargaNanos.sum();
+    }
+
+    public int getTamanio() {
+        return entradas.size();
+    }
+
+    private Optional<TopicoCacheado> cargar(Long id) {
+        var inicio = System.nanoTime();
+        try {
+            return iTopicoRepository.findByIdAndActivoTrue(id).map(TopicoCacheado::new)
+                    .or(() -> iTopicoHistoricoRepository.findByIdAndActivoTrue(id).map(TopicoCacheado::new));
+        } finally {
+            cargas.increment();
+            tiempoCargaNanos.add(System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Llena: libera lugares cualquiera (salvo el id que se está cargando), en O(1) por lugar,
+     * para no recorrer la cache en el hilo del request. Las vencidas las quita purgarVencidas().
+     */
+    private void hacerLugar(Long id) {
+        var iterador = entradas.keySet().iterator();
+        while (entradas.size() > maxEntradas && iterador.hasNext()) {
+            if (!iterador.next().equals(id)) {
+                iterador.remove();
+                desalojos.increment();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.topicos.cache.purga-ms:60000}")
+    public void purgarVencidas() {
+        var ahora = System.nanoTime();
+        entradas.values().removeIf(entrada -> {
+            var vencida = ahora - entrada.creadaEn() > ttlNanos;
+            if (vencida) {
+                desalojos.increment();
+            }
+            return vencida;
+        });
+    }
+
+    /**
+     * Copia inmutable del detalle de un tópico y de su versión (para ETag / Last-Modified).
+     */
+    public record TopicoCacheado(DatosRespuestaTopico datos, VersionTopico version) {
+
+        public TopicoCacheado(Topico topico) {
+            this(new DatosRespuestaTopico(topico), new VersionTopico(topico));
+        }
+
+        public TopicoCacheado(TopicoHistorico topico) {
+            this(new DatosRespuestaTopico(topico), new VersionTopico(topico));
+        }
+    }
+
+    private record Entrada(CompletableFuture<Optional<TopicoCacheado>> futuro, long creadaEn) {
+    }
+}
@@ -0,0 +1,391 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import com.foro.alura.hpg.api.infra.transaccion.DespuesDelCommit;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Canal de eventos de tópicos (alta, modificación y baja) para GET /topicos/stream (Server-Sent Events).
+ * * Cada suscriptor es un SseEmitter: mientras no hay eventos la conexión queda abierta en modo asíncrono
+ * sin ocupar ningún hilo, por eso se pueden mantener muchas conexiones ociosas.
+ * * Publicar solo encola el evento en la cola acotada de cada suscriptor (sin escribir en sockets);
+ * un pool chico de 'hilos-envio' vacía las colas. Si la cola de un cliente lento se llena se descarta
+ * su evento más viejo y se le avisa con un evento 'desfasado' (politica=descartar) o se lo desconecta
+ * (politica=desconectar).
+ * * SseEmitter.send es bloqueante: un cliente que no lee termina ocupando un hilo de envío. Si una
+ * escritura supera 'timeout-envio-ms' se desconecta a ese cliente, se interrumpe el hilo y el pool
+ * suma un hilo mientras el trabado no vuelva, para que los demás suscriptores sigan recibiendo eventos.
+ * Así un cliente trabado demora a los demás como máximo 'timeout-envio-ms' (más el período de verificación).
+ * * SseEmitter.complete() espera a que termine la escritura en curso (ambos toman el monitor del emitter):
+ * las desconexiones se cierran en un ejecutor aparte, nunca con el candado ni desde el scheduler o el request.
+ * * Los últimos 'eventos-retenidos' eventos se guardan en un anillo: un cliente que se reconecta
+ * con el encabezado Last-Event-ID recibe lo que se perdió, o 'desfasado' si ya no está en el anillo.
+ * * Cada 'latido-ms' se envía un comentario a los suscriptores sin eventos pendientes,
+ * para que proxies y balanceadores no cierren la conexión por inactividad.
+ */
+@Component
+public class CanalEventosTopicos {
+
+    private static final Logger log = LoggerFactory.getLogger(CanalEventosTopicos.class);
+
+    public enum Politica {
+        DESCARTAR,
+        DESCONECTAR
+    }
+
+    // Valores especiales de Suscriptor.envioDesde: sin escritura en curso y desconectado por una escritura trabada.
+    private static final long SIN_ENVIO = Long.MIN_VALUE;
+    private static final long CORTADO = Long.MAX_VALUE;
+
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private final Evento[] anillo;
+    private final int capacidadCola;
+    private final long timeoutMs;
+    private final Politica politica;
+    private final long timeoutEnvioNanos;
+    private final ThreadPoolExecutor ejecutorEnvios;
+    private final ExecutorService ejecutorCierres;
+
+    // Protege la secuencia, el anillo y el reparto: cada suscriptor recibe los eventos en orden y sin repetir.
+    private final Object candado = new Object();
+    private long secuencia;
+
+    private final LongAdder eventosPublicados = new LongAdder();
+    private final LongAdder eventosDescartados = new LongAdder();
+    private final LongAdder desconexionesPorLentitud = new LongAdder();
+
+    public CanalEventosTopicos(@Value("${api.topicos.stream.eventos-retenidos:1000}") int eventosRetenidos,
+                               @Value("${api.topicos.stream.capacidad-cola:256}") int capacidadCola,
+                               @Value("${api.topicos.stream.timeout-ms:1800000}") long timeoutMs,
+                               @Value("${api.topicos.stream.politica:descartar}") String politica,
+                               @Value("${api.topicos.stream.hilos-envio:4}") int hilosEnvio,
+                               @Value("${api.topicos.stream.timeout-envio-ms:5000}") long timeoutEnvioMs) {
+        this.anillo = new Evento[Math.max(1, eventosRetenidos)];
+        this.capacidadCola = Math.max(1, capacidadCola);
+        this.timeoutMs = timeoutMs;
+        this.politica = Politica.valueOf(politica.toUpperCase());
+        this.timeoutEnvioNanos = TimeUnit.MILLISECONDS.toNanos(timeoutEnvioMs);
+
+        var numero = new AtomicInteger();
+        this.ejecutorEnvios = new ThreadPoolExecutor(hilosEnvio, hilosEnvio, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), tarea -> {
+            var hilo = new Thread(tarea, "sse-topicos-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // Sin tope de hilos: cada cierre puede quedar esperando una escritura trabada y no debe frenar a los otros.
+        var numeroCierre = new AtomicInteger();
+        this.ejecutorCierres = Executors.newCachedThreadPool(tarea -> {
+            var hilo = new Thread(tarea, "sse-topicos-cierre-" + numeroCierre.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Registra un nuevo suscriptor.
+     * * @param curso Si no es null, solo recibe eventos de cursos que empiecen con ese texto (como /topicos/buscar).
+     * @param ultimoEventoId Valor del encabezado Last-Event-ID al reconectarse (null en la primera conexión).
+     */
+    public SseEmitter suscribir(String curso, Long ultimoEventoId) {
+        return suscribir(new SseEmitter(timeoutMs), curso, ultimoEventoId);
+    }
+
+    SseEmitter suscribir(SseEmitter emitter, String curso, Long ultimoEventoId) {
+        var filtro = curso == null || curso.isBlank() ? null : NormalizadorTexto.normalizar(curso);
+        var suscriptor = new Suscriptor(emitter, filtro);
+
+        suscriptor.emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        suscriptor.emitter.onTimeout(() -> suscriptores.remove(suscriptor));
+        suscriptor.emitter.onError(error -> suscriptores.remove(suscriptor));
+
+        synchronized (candado) {
+            if (ultimoEventoId != null) {
+                reenviarPerdidos(suscriptor, ultimoEventoId);
+            }
+            if (suscriptor.desconectado) {
+                // Con politica=desconectar, lo perdido no entró en su cola: ya se está cerrando.
+                return suscriptor.emitter;
+            }
+            suscriptores.add(suscriptor);
+        }
+        programarEnvio(suscriptor);
+        return suscriptor.emitter;
+    }
+
+    /**
+     * Publica un evento una vez confirmada la transacción actual (si hay rollback no se publica).
+     */
+    public void publicar(DatosEventoTopico.Tipo tipo, Long topicoId, String curso, DatosRespuestaTopico topico) {
+        var cursoNormalizado = NormalizadorTexto.normalizar(curso);
+        DespuesDelCommit.ejecutar(() -> repartir(new DatosEventoTopico(tipo, topicoId, topico), cursoNormalizado));
+    }
+
+    @Scheduled(fixedDelayString = "${api.topicos.stream.latido-ms:15000}")
+    public void enviarLatidos() {
+        for (var suscriptor : suscriptores) {
+            synchronized (suscriptor) {
+                if (suscriptor.cola.isEmpty()) {
+                    suscriptor.cola.add(Evento.LATIDO);
+                }
+            }
+            programarEnvio(suscriptor);
+        }
+    }
+
+    /**
+     * Desconecta a los suscriptores cuya escritura en curso lleva más de 'timeout-envio-ms'.
+     * * El hilo trabado se interrumpe y, hasta que vuelva, el pool de envíos tiene un hilo más.
+     */
+    @Scheduled(fixedDelayString = "${api.topicos.stream.timeout-envio-ms:5000}")
+    public void cortarEnviosTrabados() {
+        var ahora = System.nanoTime();
+        for (var suscriptor : suscriptores) {
+            synchronized (suscriptor.envio) {
+                if (suscriptor.envioDesde == SIN_ENVIO || suscriptor.envioDesde == CORTADO
+                        || ahora - suscriptor.envioDesde <= timeoutEnvioNanos) {
+                    continue;
+                }
+                suscriptor.envioDesde = CORTADO;
+                sumarHilos(1);
+                suscriptor.hiloEnvio.interrupt();
+            }
+            log.debug("Suscriptor de /topicos/stream desconectado: una escritura superó el tiempo máximo");
+            desconexionesPorLentitud.increment();
+            desconectar(suscriptor);
+        }
+    }
+
+    public int getSuscriptores() {
+        return suscriptores.size();
+    }
+
+    public long getEventosPublicados() {
+        return eventosPublicados.sum();
+    }
+
+    public long getEventosDescartados() {
+        return eventosDescartados.sum();
+    }
+
+    public long getDesconexionesPorLentitud() {
+        return desconexionesPorLentitud.sum();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutorEnvios.shutdownNow();
+        suscriptores.forEach(this::desconectar);
+        suscriptores.clear();
+        ejecutorCierres.shutdown();
+    }
+
+    private void repartir(DatosEventoTopico datos, String cursoNormalizado) {
+        var paraEnviar = new ArrayList<Suscriptor>();
+        synchronized (candado) {
+            var evento = new Evento(++secuencia, datos, cursoNormalizado);
+            anillo[(int) (evento.id % anillo.length)] = evento;
+            eventosPublicados.increment();
+
+            for (var suscriptor : suscriptores) {
+                if (suscriptor.acepta(evento) && encolar(suscriptor, evento)) {
+                    paraEnviar.add(suscriptor);
+                }
+            }
+        }
+        paraEnviar.forEach(this::programarEnvio);
+    }
+
+    /**
+     * Encola los eventos del anillo posteriores a 'ultimoEventoId' (se llama con el candado tomado).
+     */
+    private void reenviarPerdidos(Suscriptor suscriptor, long ultimoEventoId) {
+        var masViejo = Math.max(1, secuencia - anillo.length + 1);
+        if (ultimoEventoId > secuencia || ultimoEventoId + 1 < masViejo) {
+            // El cliente viene de antes de un reinicio o se perdió eventos que ya salieron del anillo.
+            suscriptor.cola.add(Evento.DESFASADO);
+            return;
+        }
+        for (var id = ultimoEventoId + 1; id <= secuencia; id++) {
+            var evento = anillo[(int) (id % anillo.length)];
+            if (evento != null && evento.id == id && suscriptor.acepta(evento)) {
+                encolar(suscriptor, evento);
+            }
+        }
+    }
+
+    /**
+     * @return false si el suscriptor fue desconectado por no dar abasto.
+     */
+    private boolean encolar(Suscriptor suscriptor, Evento evento) {
+        synchronized (suscriptor) {
+            if (suscriptor.desconectado) {
+                return false;
+            }
+            if (suscriptor.cola.size() < capacidadCola) {
+                suscriptor.cola.add(evento);
+                return true;
+            }
+            if (politica == Politica.DESCONECTAR) {
+                desconexionesPorLentitud.increment();
+                suscriptor.desconectado = true;
+                desconectar(suscriptor);
+                return false;
+            }
+            // DESCARTAR: se pierde el evento más viejo y el cliente recibe 'desfasado' antes del siguiente.
+            suscriptor.cola.poll();
+            suscriptor.cola.add(evento);
+            suscriptor.desfasado = true;
+            eventosDescartados.increment();
+            return true;
+        }
+    }
+
+    /**
+     * Quita al suscriptor y cierra su emitter en ejecutorCierres: complete() puede esperar una escritura trabada,
+     * así que no se llama con el candado tomado ni desde el hilo que publica o el scheduler.
+     */
+    private void desconectar(Suscriptor suscriptor) {
+        suscriptores.remove(suscriptor);
+        ejecutorCierres.execute(suscriptor.emitter::complete);
+    }
+
+    private void programarEnvio(Suscriptor suscriptor) {
+        if (suscriptor.enviando.compareAndSet(false, true)) {
+            ejecutorEnvios.execute(() -> vaciar(suscriptor));
+        }
+    }
+
+    private void vaciar(Suscriptor suscriptor) {
+        try {
+            while (suscriptor.envioDesde != CORTADO) {
+                Evento evento;
+                boolean desfasado;
+                synchronized (suscriptor) {
+                    evento = suscriptor.cola.poll();
+                    desfasado = suscriptor.desfasado;
+                    suscriptor.desfasado = false;
+                    if (evento == null) {
+                        suscriptor.enviando.set(false);
+                        return;
+                    }
+                }
+                if (desfasado) {
+                    enviar(suscriptor, Evento.DESFASADO);
+                }
+                enviar(suscriptor, evento);
+            }
+        } catch (IOException | IllegalStateException exception) {
+            // El cliente cerró la conexión (o el emitter ya había terminado).
+            log.debug("Suscriptor de /topicos/stream desconectado: {}", exception.getMessage());
+            suscriptores.remove(suscriptor);
+            suscriptor.emitter.completeWithError(exception);
+        } finally {
+            synchronized (suscriptor.envio) {
+                if (suscriptor.envioDesde == CORTADO) {
+                    // Este hilo era el trabado: descartamos la interrupción y devolvemos el hilo extra.
+                    Thread.interrupted();
+                    sumarHilos(-1);
+                }
+            }
+        }
+    }
+
+    private void enviar(Suscriptor suscriptor, Evento evento) throws IOException {
+        synchronized (suscriptor.envio) {
+            if (suscriptor.envioDesde == CORTADO) {
+                return;
+            }
+            suscriptor.envioDesde = System.nanoTime();
+            suscriptor.hiloEnvio = Thread.currentThread();
+        }
+        try {
+            escribir(suscriptor, evento);
+        } finally {
+            synchronized (suscriptor.envio) {
+                if (suscriptor.envioDesde != CORTADO) {
+                    suscriptor.envioDesde = SIN_ENVIO;
+                }
+            }
+        }
+    }
+
+    private static void escribir(Suscriptor suscriptor, Evento evento) throws IOException {
+        if (evento == Evento.LATIDO) {
+            suscriptor.emitter.send(SseEmitter.event().comment("latido"));
+        } else if (evento == Evento.DESFASADO) {
+            suscriptor.emitter.send(SseEmitter.event().name("desfasado").data("Se perdieron eventos: vuelva a cargar el listado"));
+        } else {
+            suscriptor.emitter.send(SseEmitter.event()
+                    .id(Long.toString(evento.id))
+                    .name(evento.datos.tipo().name().toLowerCase())
+                    .data(evento.datos, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Agranda (o vuelve a achicar) el pool de envíos mientras haya hilos trabados en una escritura.
+     */
+    private synchronized void sumarHilos(int cantidad) {
+        var hilos = ejecutorEnvios.getCorePoolSize() + cantidad;
+        if (cantidad > 0) {
+            ejecutorEnvios.setMaximumPoolSize(hilos);
+            ejecutorEnvios.setCorePoolSize(hilos);
+        } else {
+            ejecutorEnvios.setCorePoolSize(hilos);
+            ejecutorEnvios.setMaximumPoolSize(hilos);
+        }
+    }
+
+    private record Evento(long id, DatosEventoTopico datos, String cursoNormalizado) {
+
+        static final Evento LATIDO = new Evento(0, null, null);
+        static final Evento DESFASADO = new Evento(-1, null, null);
+    }
+
+    private static class Suscriptor {
+
+        private final SseEmitter emitter;
+        private final String filtroCurso;
+        private final Queue<Evento> cola = new ArrayDeque<>();
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private boolean desfasado;
+        private boolean desconectado;
+        // Protege envioDesde e hiloEnvio (la escritura en curso, ver cortarEnviosTrabados).
+        private final Object envio = new Object();
+        private volatile long envioDesde = SIN_ENVIO;
+        private Thread hiloEnvio;
+
+        Suscriptor(SseEmitter emitter, String filtroCurso) {
+            this.emitter = emitter;
+            this.filtroCurso = filtroCurso;
+        }
+
+        boolean acepta(Evento evento) {
+            // Los eventos sin curso (IMPORTADO) le llegan a todos.
+            return filtroCurso == null || evento.cursoNormalizado() == null || evento.cursoNormalizado().startsWith(filtroCurso);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import com.foro.alura.hpg.api.infra.exceptions.ValidacionException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de un tópico dentro del orden (fechaDeCreacion, id).
+ * * Se usa para la paginación por cursor: el cliente recibe esta posición codificada
+ * en Base64 (opaca) y la devuelve para pedir la página siguiente o la anterior.
+ */
+public record CursorTopico(LocalDateTime fechaDeCreacion, Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    public CursorTopico(Topico topico) {
+        this(topico.getFechaDeCreacion(), topico.getId());
+    }
+
+    public String codificar() {
+        var texto = fechaDeCreacion + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorTopico decodificar(String cursor) {
+        try {
+            var texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separador = texto.lastIndexOf(SEPARADOR);
+            return new CursorTopico(
+                    LocalDateTime.parse(texto.substring(0, separador)),
+                    Long.valueOf(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException exception) {
+            throw new ValidacionException("El cursor recibido no es válido");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO de respuesta de GET /topicos/stats: cantidad de tópicos activos por curso, status, año y autor.
+ * * 'ultimaReconciliacion' indica cuándo se compararon por última vez los contadores con la base de datos.
+ */
+public record DatosEstadisticasTopicos(
+        long total,
+        Map<String, Long> porCurso,
+        Map<Status, Long> porStatus,
+        Map<Integer, Long> porAnio,
+        List<DatosConteoAutor> porAutor,
+        LocalDateTime ultimaReconciliacion
+) {
+
+    /**
+     * Cantidad de tópicos de un autor (ordenados de mayor a menor en 'porAutor').
+     */
+    public record DatosConteoAutor(Long id, String nombre, long cantidad) {
+    }
+}
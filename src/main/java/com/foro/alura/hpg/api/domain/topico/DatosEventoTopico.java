@@ -0,0 +1,21 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+/**
+ * Evento de cambio de un tópico enviado por GET /topicos/stream.
+ * * 'topico' viene en null en los eventos ELIMINADO (alcanza con el id).
+ * * IMPORTADO resume una importación masiva (sin id ni tópico) y llega a todos los suscriptores,
+ * sin importar su filtro de curso: el cliente vuelve a cargar el listado.
+ */
+public record DatosEventoTopico(
+        Tipo tipo,
+        Long topicoId,
+        DatosRespuestaTopico topico
+) {
+
+    public enum Tipo {
+        CREADO,
+        ACTUALIZADO,
+        ELIMINADO,
+        IMPORTADO
+    }
+}
@@ -0,0 +1,14 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import java.util.List;
+
+/**
+ * Respuesta de GET /topicos?ids= y POST /topicos/batch.
+ * * 'topicos' respeta el orden del pedido (sin repetidos); 'noEncontrados' lista los ids
+ * que no existen o fueron eliminados, también en el orden del pedido.
+ */
+public record DatosLoteTopicos(
+        List<JsonTopico> topicos,
+        List<Long> noEncontrados
+) {
+}
@@ -0,0 +1,16 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para el listado de tópicos paginado por cursor.
+ * * 'siguiente' y 'anterior' son cursores opacos (null cuando no hay más páginas en esa dirección).
+ * * 'total' solo se informa cuando el cliente lo pide explícitamente, para no ejecutar un COUNT(*) en cada página.
+ */
+public record DatosPaginaCursorTopico(
+        List<DatosRespuestaTopico> contenido,
+        String siguiente,
+        String anterior,
+        Long total
+) {
+}
@@ -31,4 +31,19 @@ public record DatosRespuestaTopico(
                 topico.getStatus()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Mismo DTO para los tópicos leídos desde la vista con el archivo (TopicoHistorico).
+     */
+    public DatosRespuestaTopico(TopicoHistorico topico) {
+        this(
+                topico.getId(),
+                topico.getTitulo(),
+                topico.getMensaje(),
+                topico.getFechaDeCreacion(),
+                topico.getCurso(),
+                topico.getAutor().getNombre(),
+                topico.getStatus()
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para la búsqueda de texto sobre tópicos.
+ * * Además de la página de resultados (ordenados por relevancia) informa el total de coincidencias,
+ * las palabras efectivamente buscadas (ya normalizadas) y el tiempo que llevó la consulta.
+ */
+public record DatosResultadoBusquedaTopicos(
+        List<DatosRespuestaTopico> contenido,
+        int pagina,
+        int tamanio,
+        long totalResultados,
+        List<String> terminos,
+        long tiempoMicros
+) {
+}
@@ -0,0 +1,25 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta de la importación masiva de tópicos.
+ * * 'errores' contiene como máximo las primeras filas rechazadas (ver 'erroresTruncados'),
+ * para que la respuesta no crezca con el tamaño del archivo importado.
+ */
+public record DatosResumenImportacion(
+        long filasLeidas,
+        long insertados,
+        long rechazados,
+        List<DatosErrorImportacion> errores,
+        boolean erroresTruncados,
+        long duracionMs,
+        double filasPorSegundo
+) {
+
+    /**
+     * Error de una fila concreta del archivo NDJSON (la línea empieza en 1).
+     */
+    public record DatosErrorImportacion(long linea, String mensaje) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Cuerpo de POST /topicos/batch: ids de los tópicos a traer, en el orden en que se quieren recibir.
+ * * MAX_IDS es el tope fijo del cuerpo, sin importar 'api.topicos.lote.max-ids' (que solo puede ser menor).
+ */
+public record DatosSolicitudLoteTopicos(
+        @NotEmpty
+        @Size(max = DatosSolicitudLoteTopicos.MAX_IDS)
+        List<Long> ids
+) {
+    public static final int MAX_IDS = 1000;
+}
@@ -0,0 +1,259 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import com.foro.alura.hpg.api.domain.topico.DatosEstadisticasTopicos.DatosConteoAutor;
+import com.foro.alura.hpg.api.domain.usuario.IUsuarioRepository;
+import com.foro.alura.hpg.api.infra.transaccion.DespuesDelCommit;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Contadores en memoria de tópicos no eliminados por curso, status, año de creación y autor (GET /topicos/stats).
+ * * Los tableros consultan el endpoint constantemente: responder desde memoria evita un GROUP BY
+ * sobre 'topicos_historico' en cada pedido.
+ * * Cuentan también los tópicos archivados sin eliminar (ej: cerrados o resueltos que el ArchivadorTopicos
+ * movió a 'topicos_archivo'): archivar o restaurar un tópico no cambia los contadores.
+ * * El TopicoController y el ImportadorTopicos los actualizan en cada alta, modificación y baja
+ * (después del commit). Al iniciar la aplicación se reconstruyen desde la base de datos y cada
+ * 'reconciliacion-ms' se recalculan para corregir cualquier desvío (ej: cambios hechos por SQL
+ * o altas confirmadas mientras corría una reconstrucción).
+ * * Los contadores se indexan solo por el id del autor (tomarlo de un proxy no lo inicializa):
+ * los nombres se resuelven al consultar, desde los que trajo la última reconciliación.
+ * * Los cambios que llegan mientras corre el GROUP BY se anotan y se vuelven a aplicar sobre
+ * los contadores nuevos antes de reemplazar los actuales, para no perderlos. Limitación: un cambio
+ * confirmado justo antes de que el GROUP BY tome su snapshot, pero cuyo aviso post-commit llega después,
+ * ya está en el resultado y se aplica dos veces. Ese desvío es de unas pocas unidades y lo corrige
+ * la reconciliación siguiente.
+ */
+@Component
+public class EstadisticasTopicos {
+
+    private static final Logger log = LoggerFactory.getLogger(EstadisticasTopicos.class);
+
+    @Autowired
+    private ITopicoHistoricoRepository iTopicoHistoricoRepository;
+
+    @Autowired
+    private IUsuarioRepository iUsuarioRepository;
+
+    private final Map<Long, String> nombresAutores = new ConcurrentHashMap<>();
+    private final Object bloqueoCambios = new Object();
+    private final Object bloqueoReconciliacion = new Object();
+    private volatile Contadores contadores = new Contadores();
+    // Cambios aplicados mientras corre una reconciliación (null si no hay ninguna en curso); ver bloqueoCambios.
+    private List<Consumer<Contadores>> cambiosDuranteReconciliacion;
+    private volatile LocalDateTime ultimaReconciliacion;
+    private volatile long ultimoDesvio;
+
+    /**
+     * Suma un tópico recién creado, una vez confirmada la transacción actual.
+     */
+    public void registrar(Topico topico) {
+        var clave = Clave.de(topico);
+        if (Hibernate.isInitialized(topico.getAutor())) {
+            // El nombre solo se aprovecha si el autor ya está cargado: nunca se dispara un SELECT para obtenerlo.
+            nombresAutores.putIfAbsent(clave.autorId(), topico.getAutor().getNombre());
+        }
+        registrar(clave);
+    }
+
+    /**
+     * Igual que registrar(Topico), a partir de la clave ya armada (importación masiva, sin entidades).
+     */
+    public void registrar(Clave clave) {
+        DespuesDelCommit.ejecutar(() -> aplicar(actuales -> actuales.sumar(clave, 1)));
+    }
+
+    /**
+     * Resta un tópico eliminado, una vez confirmada la transacción actual.
+     */
+    public void quitar(Topico topico) {
+        var clave = Clave.de(topico);
+        DespuesDelCommit.ejecutar(() -> aplicar(actuales -> actuales.sumar(clave, -1)));
+    }
+
+    /**
+     * Mueve un tópico modificado de sus contadores anteriores a los nuevos (ej: cambio de curso o de status).
+     * * @param anterior Clave tomada antes de modificar la entidad (ver Clave.de).
+     */
+    public void actualizar(Clave anterior, Topico topico) {
+        var nueva = Clave.de(topico);
+        if (anterior.equals(nueva)) {
+            return;
+        }
+        DespuesDelCommit.ejecutar(() -> aplicar(actuales -> {
+            actuales.sumar(anterior, -1);
+            actuales.sumar(nueva, 1);
+        }));
+    }
+
+    /**
+     * Aplica un cambio a los contadores actuales y, si hay una reconciliación en curso, lo anota para repetirlo
+     * sobre los contadores que la reemplazan.
+     */
+    private void aplicar(Consumer<Contadores> cambio) {
+        synchronized (bloqueoCambios) {
+            cambio.accept(contadores);
+            if (cambiosDuranteReconciliacion != null) {
+                cambiosDuranteReconciliacion.add(cambio);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${api.topicos.estadisticas.reconciliacion-ms:600000}",
+            fixedDelayString = "${api.topicos.estadisticas.reconciliacion-ms:600000}")
+    public void reconciliarProgramado() {
+        reconciliar();
+    }
+
+    /**
+     * Recalcula todos los contadores con un único GROUP BY y reemplaza los actuales.
+     * * @return Cantidad de valores que no coincidían con la base de datos (0 si no había desvío).
+     */
+    public long reconciliar() {
+        synchronized (bloqueoReconciliacion) {
+            return reconciliarSinConcurrencia();
+        }
+    }
+
+    private long reconciliarSinConcurrencia() {
+        synchronized (bloqueoCambios) {
+            cambiosDuranteReconciliacion = new ArrayList<>();
+        }
+        var nuevos = new Contadores();
+        try {
+            for (var fila : iTopicoHistoricoRepository.contarParaEstadisticas()) {
+                nuevos.sumar(new Clave(fila.curso(), fila.status(), fila.anio(), fila.autorId()), fila.cantidad());
+                nombresAutores.put(fila.autorId(), fila.nombreAutor());
+            }
+        } catch (RuntimeException e) {
+            synchronized (bloqueoCambios) {
+                cambiosDuranteReconciliacion = null;
+            }
+            throw e;
+        }
+
+        long desvio;
+        synchronized (bloqueoCambios) {
+            // Los cambios avisados durante el GROUP BY se repiten sobre los contadores nuevos antes del reemplazo
+            // (los confirmados antes del snapshot quedan contados dos veces hasta la próxima reconciliación).
+            cambiosDuranteReconciliacion.forEach(cambio -> cambio.accept(nuevos));
+            cambiosDuranteReconciliacion = null;
+            desvio = contadores.diferencias(nuevos);
+            contadores = nuevos;
+        }
+        ultimaReconciliacion = LocalDateTime.now();
+        ultimoDesvio = desvio;
+        if (desvio > 0) {
+            log.warn("Estadísticas de tópicos: se corrigieron {} contadores desfasados", desvio);
+        }
+        return desvio;
+    }
+
+    public DatosEstadisticasTopicos consultar() {
+        var actuales = contadores;
+        var faltantes = actuales.porAutor.keySet().stream()
+                .filter(autorId -> !nombresAutores.containsKey(autorId))
+                .toList();
+        if (!faltantes.isEmpty()) {
+            // Autores que aparecieron desde la última reconciliación: un único SELECT y quedan guardados.
+            iUsuarioRepository.findAllById(faltantes)
+                    .forEach(usuario -> nombresAutores.put(usuario.getId(), usuario.getNombre()));
+        }
+        var porAutor = actuales.porAutor.entrySet().stream()
+                .filter(entrada -> entrada.getValue().sum() > 0)
+                .map(entrada -> new DatosConteoAutor(entrada.getKey(), nombresAutores.get(entrada.getKey()), entrada.getValue().sum()))
+                .sorted(Comparator.comparingLong(DatosConteoAutor::cantidad).reversed().thenComparing(DatosConteoAutor::id))
+                .toList();
+
+        return new DatosEstadisticasTopicos(
+                actuales.total.sum(),
+                copiar(actuales.porCurso, new TreeMap<>()),
+                copiar(actuales.porStatus, new EnumMap<>(Status.class)),
+                copiar(actuales.porAnio, new TreeMap<>()),
+                porAutor,
+                ultimaReconciliacion);
+    }
+
+    public long getUltimoDesvio() {
+        return ultimoDesvio;
+    }
+
+    private static <K> Map<K, Long> copiar(Map<K, LongAdder> origen, Map<K, Long> destino) {
+        origen.forEach((clave, valor) -> {
+            var cantidad = valor.sum();
+            if (cantidad > 0) {
+                destino.put(clave, cantidad);
+            }
+        });
+        return destino;
+    }
+
+    /**
+     * Dimensiones de un tópico que se cuentan. Se toma antes de modificar la entidad para poder restarla.
+     * * Solo guarda el id del autor: leerlo de un proxy de Hibernate no ejecuta el SELECT de 'usuarios'.
+     */
+    public record Clave(String curso, Status status, int anio, Long autorId) {
+
+        public static Clave de(Topico topico) {
+            return new Clave(topico.getCurso(), topico.getStatus(), topico.getFechaDeCreacion().getYear(),
+                    topico.getAutor().getId());
+        }
+    }
+
+    private static class Contadores {
+
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> porCurso = new ConcurrentHashMap<>();
+        private final Map<Status, LongAdder> porStatus = new ConcurrentHashMap<>();
+        private final Map<Integer, LongAdder> porAnio = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> porAutor = new ConcurrentHashMap<>();
+
+        void sumar(Clave clave, long cantidad) {
+            total.add(cantidad);
+            porCurso.computeIfAbsent(clave.curso(), c -> new LongAdder()).add(cantidad);
+            porStatus.computeIfAbsent(clave.status(), s -> new LongAdder()).add(cantidad);
+            porAnio.computeIfAbsent(clave.anio(), a -> new LongAdder()).add(cantidad);
+            porAutor.computeIfAbsent(clave.autorId(), a -> new LongAdder()).add(cantidad);
+        }
+
+        long diferencias(Contadores otros) {
+            return (total.sum() == otros.total.sum() ? 0 : 1)
+                    + diferencias(porCurso, otros.porCurso)
+                    + diferencias(porStatus, otros.porStatus)
+                    + diferencias(porAnio, otros.porAnio)
+                    + diferencias(porAutor, otros.porAutor);
+        }
+
+        private static <K> long diferencias(Map<K, LongAdder> estos, Map<K, LongAdder> otros) {
+            var claves = new HashSet<>(estos.keySet());
+            claves.addAll(otros.keySet());
+            return claves.stream()
+                    .filter(clave -> cantidad(estos, clave) != cantidad(otros, clave))
+                    .count();
+        }
+
+        private static <K> long cantidad(Map<K, LongAdder> mapa, K clave) {
+            var valor = mapa.get(clave);
+            return valor == null ? 0 : valor.sum();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Exportación completa de tópicos (NDJSON o CSV) escrita directamente sobre un OutputStream.
+ * * Lee la tabla con un cursor del lado del servidor (Stream + fetch size) en lugar de paginar con
+ * OFFSET y COUNT, y va desacoplando las entidades del contexto de persistencia a medida que las escribe.
+ * * Así el uso de memoria es constante sin importar la cantidad de tópicos exportados.
+ * * Con 'incluirArchivados' (por defecto en el endpoint) lee la vista 'topicos_historico' en lugar de 'topicos',
+ * para que los tópicos que movió el ArchivadorTopicos no falten en la exportación.
+ */
+@Service
+public class ExportadorTopicos {
+
+    private static final int FILAS_POR_LIMPIEZA = 1000;
+
+    @Autowired
+    private ITopicoRepository iTopicoRepository;
+
+    @Autowired
+    private ITopicoHistoricoRepository iTopicoHistoricoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public enum Formato {
+        NDJSON,
+        CSV
+    }
+
+    /**
+     * Filtros opcionales de la exportación. La fecha 'hasta' es exclusiva.
+     */
+    public record Filtros(String curso, Status status, LocalDateTime desde, LocalDateTime hasta, boolean incluirArchivados) {
+
+        String prefijoCurso() {
+            return curso == null || curso.isBlank() ? null : NormalizadorTexto.patronPrefijo(curso);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportar(Filtros filtros, Formato formato, OutputStream salida) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        var escritorJson = objectMapper.writerFor(DatosRespuestaTopico.class);
+        long filas;
+
+        if (formato == Formato.CSV) {
+            writer.write("id,titulo,mensaje,fechaDeCreacion,curso,nombreAutor,status\n");
+        }
+
+        if (filtros.incluirArchivados()) {
+            try (var topicos = iTopicoHistoricoRepository.exportar(filtros.prefijoCurso(), filtros.status(), filtros.desde(), filtros.hasta())) {
+                filas = escribir(topicos, DatosRespuestaTopico::new, formato, writer, escritorJson);
+            }
+        } else {
+            try (var topicos = iTopicoRepository.exportar(filtros.prefijoCurso(), filtros.status(), filtros.desde(), filtros.hasta())) {
+                filas = escribir(topicos, DatosRespuestaTopico::new, formato, writer, escritorJson);
+            }
+        }
+
+        writer.flush();
+        return filas;
+    }
+
+    private <T> long escribir(Stream<T> topicos, Function<T, DatosRespuestaTopico> aDatos, Formato formato,
+                              Writer writer, ObjectWriter escritorJson) throws IOException {
+        long filas = 0;
+        var iterador = topicos.iterator();
+        while (iterador.hasNext()) {
+            var topico = iterador.next();
+            var datos = aDatos.apply(topico);
+
+            if (formato == Formato.CSV) {
+                escribirCsv(writer, datos);
+            } else {
+                writer.write(escritorJson.writeValueAsString(datos));
+                writer.write('\n');
+            }
+
+            // Soltamos la entidad (y cada tanto todo el contexto) para no acumularlas en memoria.
+            entityManager.detach(topico);
+            if (++filas % FILAS_POR_LIMPIEZA == 0) {
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        return filas;
+    }
+
+    private void escribirCsv(Writer writer, DatosRespuestaTopico datos) throws IOException {
+        writer.write(String.valueOf(datos.id()));
+        writer.write(',');
+        writer.write(campoCsv(datos.titulo()));
+        writer.write(',');
+        writer.write(campoCsv(datos.mensaje()));
+        writer.write(',');
+        writer.write(String.valueOf(datos.fechaDeCreacion()));
+        writer.write(',');
+        writer.write(campoCsv(datos.curso()));
+        writer.write(',');
+        writer.write(campoCsv(datos.nombreAutor()));
+        writer.write(',');
+        writer.write(datos.status().name());
+        writer.write('\n');
+    }
+
+    /**
+     * Escapa un valor según RFC 4180: entre comillas si tiene comas, comillas o saltos de línea.
+     */
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
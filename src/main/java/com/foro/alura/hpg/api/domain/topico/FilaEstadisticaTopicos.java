@@ -0,0 +1,8 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+/**
+ * Fila del GROUP BY (curso, status, año, autor) con el que se reconstruyen las EstadisticasTopicos.
+ */
+public record FilaEstadisticaTopicos(String curso, Status status, Integer anio, Long autorId, String nombreAutor,
+                                     Long cantidad) {
+}
@@ -0,0 +1,114 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom con los hashes de contenido de todos los tópicos.
+ * * Responde "seguro que no existe" o "puede que exista": si el hash no está en el filtro,
+ * el TopicoController se ahorra la consulta de duplicados y va directo al INSERT.
+ * * Nunca da falsos negativos, por eso la corrección no depende de él: ante un "puede que exista"
+ * se consulta la base, y el índice único uk_topicos_hash_contenido cubre las carreras entre POSTs.
+ * * Las bajas no se pueden quitar de un filtro de Bloom; solo aumentan levemente los falsos positivos.
+ */
+@Component
+public class FiltroBloomTopicos {
+
+    private static final int TAMANIO_LOTE_CARGA = 1000;
+
+    @Autowired
+    private ITopicoRepository iTopicoRepository;
+
+    @Autowired
+    private ITopicoHistoricoRepository iTopicoHistoricoRepository;
+
+    private final AtomicLongArray bits;
+    private final int cantidadBits;
+    private final int cantidadFunciones;
+
+    public FiltroBloomTopicos(@Value("${api.topicos.duplicados.bloom.elementos-esperados:1000000}") int elementosEsperados,
+                              @Value("${api.topicos.duplicados.bloom.falsos-positivos:0.01}") double probabilidadFalsoPositivo) {
+        // Fórmulas estándar: m = -n ln(p) / ln(2)^2  y  k = m/n ln(2)
+        var m = (long) Math.ceil(-elementosEsperados * Math.log(probabilidadFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.cantidadBits = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+        this.cantidadFunciones = Math.max(1, (int) Math.round((double) cantidadBits / elementosEsperados * Math.log(2)));
+        this.bits = new AtomicLongArray((cantidadBits + 63) / 64);
+    }
+
+    /**
+     * Carga el filtro antes de que la aplicación empiece a atender requests, igual que RevocacionTokens:
+     * con ApplicationReadyEvent los primeros POST podían llegar con el filtro vacío, saltear la consulta
+     * de duplicados y aceptar uno igual a un tópico archivado (el índice único solo cubre 'topicos').
+     */
+    @PostConstruct
+    void inicializar() {
+        construir();
+    }
+
+    /**
+     * Carga de todos los hashes existentes, recorriendo la tabla por id en lotes,
+     * y luego los de 'topicos_archivo' (en orden de hash, por su índice).
+     */
+    public void construir() {
+        var lote = PageRequest.of(0, TAMANIO_LOTE_CARGA);
+        var hashes = iTopicoRepository.hashesDeContenidoDesde(0L, lote);
+
+        while (!hashes.isEmpty()) {
+            hashes.forEach(fila -> agregar(fila.hashContenido()));
+            hashes = iTopicoRepository.hashesDeContenidoDesde(hashes.get(hashes.size() - 1).id(), lote);
+        }
+
+        var archivados = iTopicoHistoricoRepository.hashesArchivadosDesde("", TAMANIO_LOTE_CARGA);
+        while (!archivados.isEmpty()) {
+            archivados.forEach(this::agregar);
+            archivados = iTopicoHistoricoRepository.hashesArchivadosDesde(archivados.get(archivados.size() - 1), TAMANIO_LOTE_CARGA);
+        }
+    }
+
+    public void agregar(String hashContenido) {
+        if (hashContenido == null) {
+            return;
+        }
+        var posiciones = posiciones(hashContenido);
+        for (var posicion : posiciones) {
+            var indice = posicion >>> 6;
+            var mascara = 1L << (posicion & 63);
+            bits.getAndUpdate(indice, valor -> valor | mascara);
+        }
+    }
+
+    public boolean puedeContener(String hashContenido) {
+        for (var posicion : posiciones(hashContenido)) {
+            if ((bits.get(posicion >>> 6) & (1L << (posicion & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * El hash de contenido ya es SHA-256, así que sus bytes están bien distribuidos:
+     * tomamos dos valores de 64 bits y aplicamos doble hashing (h1 + i * h2).
+     */
+    private int[] posiciones(String hashContenido) {
+        var bytes = HexFormat.of().parseHex(hashContenido, 0, 32);
+        var h1 = 0L;
+        var h2 = 0L;
+        for (int i = 0; i < 8; i++) {
+            h1 = (h1 << 8) | (bytes[i] & 0xFF);
+            h2 = (h2 << 8) | (bytes[i + 8] & 0xFF);
+        }
+
+        var posiciones = new int[cantidadFunciones];
+        for (int i = 0; i < cantidadFunciones; i++) {
+            posiciones[i] = (int) Math.floorMod(h1 + i * h2, (long) cantidadBits);
+        }
+        return posiciones;
+    }
+}
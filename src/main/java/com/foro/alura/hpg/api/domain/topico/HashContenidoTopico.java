@@ -0,0 +1,11 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+/**
+ * Proyección liviana (id + hash de contenido) usada para cargar el FiltroBloomTopicos.
+ * * También define el mensaje para un tópico con el mismo hash (mismo título y mensaje) que uno existente,
+ * compartido por el TopicoController y el GestorDeErrores.
+ */
+public record HashContenidoTopico(Long id, String hashContenido) {
+
+    public static final String MENSAJE_TOPICO_DUPLICADO = "Error: El tópico ya existe (mismo título y mensaje).";
+}
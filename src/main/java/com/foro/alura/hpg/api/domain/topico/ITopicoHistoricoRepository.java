@@ -0,0 +1,125 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Lectura de la vista 'topicos_historico' (tópicos activos y archivados) y de los hashes de 'topicos_archivo'.
+ * * El detalle, el lote y la versión por id se usan solo para los ids que ya no están en 'topicos'
+ * (ej: un tópico cerrado que ArchivadorTopicos movió a la tabla fría).
+ */
+@Repository
+public interface ITopicoHistoricoRepository extends JpaRepository<TopicoHistorico, Long> {
+
+    /**
+     * Listado con 'incluirArchivados=true'. Como el de ITopicoRepository devuelve Slice: el COUNT sobre la vista
+     * (UNION de ambas tablas) se pide aparte con countByActivoTrue solo según TotalesAproximadosTopicos.Modo.
+     */
+    @EntityGraph(attributePaths = "autor")
+    Slice<TopicoHistorico> findAllByActivoTrue(Pageable paginacion);
+
+    long countByActivoTrue();
+
+    /**
+     * Carga de CacheTopicos para los tópicos archivados: igual que ITopicoRepository.findByIdAndActivoTrue,
+     * lee del primario para no dejar en cache una fila atrasada de la réplica.
+     */
+    @EntityGraph(attributePaths = "autor")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    Optional<TopicoHistorico> findByIdAndActivoTrue(Long id);
+
+    @EntityGraph(attributePaths = "autor")
+    @Transactional(readOnly = true)
+    List<TopicoHistorico> findAllByIdInAndActivoTrue(Collection<Long> ids);
+
+    /**
+     * Igual que ITopicoRepository.exportar, sobre la vista: la exportación completa incluye los tópicos archivados.
+     */
+    @EntityGraph(attributePaths = "autor")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT t FROM TopicoHistorico t
+            WHERE t.activo = true
+            AND (:prefijoCurso IS NULL OR t.cursoNormalizado LIKE :prefijoCurso ESCAPE '!')
+            AND (:status IS NULL OR t.status = :status)
+            AND (:desde IS NULL OR t.fechaDeCreacion >= :desde)
+            AND (:hasta IS NULL OR t.fechaDeCreacion < :hasta)
+            ORDER BY t.id
+            """)
+    Stream<TopicoHistorico> exportar(String prefijoCurso, Status status, LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Tópicos no eliminados (activos y archivados) con id mayor al indicado, en orden de id
+     * (carga de IndiceBusquedaTopicos por keyset). Sin readOnly: el índice se arma desde el primario.
+     */
+    @EntityGraph(attributePaths = "autor")
+    @Query("SELECT t FROM TopicoHistorico t WHERE t.activo = true AND t.id > :ultimoId ORDER BY t.id")
+    List<TopicoHistorico> paginaParaIndice(Long ultimoId, Pageable lote);
+
+    /**
+     * Cantidad de tópicos no eliminados (activos y archivados) agrupados por curso, status, año y autor
+     * (reconstrucción de EstadisticasTopicos).
+     * * Es el único GROUP BY sobre la vista: se ejecuta al iniciar y en cada reconciliación, no por pedido.
+     * Sin readOnly, como paginaParaIndice: los contadores se arman desde el primario.
+     */
+    @Query("""
+            SELECT new com.foro.alura.hpg.api.domain.topico.FilaEstadisticaTopicos(
+                t.curso, t.status, YEAR(t.fechaDeCreacion), a.id, a.nombre, COUNT(t))
+            FROM TopicoHistorico t JOIN t.autor a
+            WHERE t.activo = true
+            GROUP BY t.curso, t.status, YEAR(t.fechaDeCreacion), a.id, a.nombre
+            """)
+    List<FilaEstadisticaTopicos> contarParaEstadisticas();
+
+    @Query("""
+            SELECT new com.foro.alura.hpg.api.domain.topico.VersionTopico(t.id, t.version, t.fechaDeActualizacion)
+            FROM TopicoHistorico t
+            WHERE t.id = :id AND t.activo = true
+            """)
+    @Transactional(readOnly = true)
+    Optional<VersionTopico> buscarVersion(Long id);
+
+    /**
+     * Los tópicos archivados conservan su hash: un alta igual a un tópico archivado también es un duplicado.
+     * * Usa el índice idx_topicos_archivo_hash_contenido (V12).
+     */
+    @Query(value = "select count(*) from topicos_archivo where hash_contenido = :hashContenido", nativeQuery = true)
+    long contarArchivadosConHash(String hashContenido);
+
+    /**
+     * De los hashes recibidos, devuelve los que ya existen en el archivo (importación masiva).
+     */
+    @Query(value = "select hash_contenido from topicos_archivo where hash_contenido in (:hashes)", nativeQuery = true)
+    List<String> hashesArchivados(Collection<String> hashes);
+
+    /**
+     * Hashes del archivo mayores al indicado, en orden (carga del FiltroBloomTopicos recorriendo el índice).
+     */
+    @Query(value = """
+            select hash_contenido from topicos_archivo
+            where hash_contenido > :desde
+            order by hash_contenido
+            limit :limite
+            """, nativeQuery = true)
+    List<String> hashesArchivadosDesde(String desde, int limite);
+}
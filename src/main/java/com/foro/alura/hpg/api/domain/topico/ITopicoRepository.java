@@ -1,10 +1,25 @@
 package com.foro.alura.hpg.api.domain.topico;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Interface que actúa como la capa de persistencia para la entidad Topico.
@@ -19,20 +34,207 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface ITopicoRepository extends JpaRepository<Topico, Long> {
 
+    /**
+     * Todas las consultas de listado y búsqueda traen al autor en el mismo SELECT (@EntityGraph).
+     * * Sin esto, DatosRespuestaTopico dispara un SELECT extra a 'usuarios' por cada tópico
+     * de la página al leer topico.getAutor().getNombre() (problema N+1).
+     * * El COUNT(*) de las páginas (cuando se ejecuta) no se ve afectado: Spring Data lo deriva sin el JOIN.
+     */
+    @Override
+    @EntityGraph(attributePaths = "autor")
+    Page<Topico> findAll(Pageable paginacion);
+
+    @Override
+    @EntityGraph(attributePaths = "autor")
+    Optional<Topico> findById(Long id);
+
+    /**
+     * Detalle de un tópico no eliminado (los eliminados lógicamente responden 404). Lo usa CacheTopicos para cargar.
+     * * Siempre lee del primario: lo que se carga queda en cache 'ttl-segundos' (y su JSON en CacheJsonTopicos),
+     * así que una fila atrasada de la réplica se serviría durante todo ese tiempo. NOT_SUPPORTED suspende
+     * cualquier transacción readOnly de afuera y, al no haber transacción, no cuenta como escritura del cliente.
+     */
+    @EntityGraph(attributePaths = "autor")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    Optional<Topico> findByIdAndActivoTrue(Long id);
+
+    boolean existsByIdAndActivoTrue(Long id);
+
+    long countByActivoTrue();
+
+    /**
+     * Versión y fecha de modificación de un tópico, sin cargar la entidad (GET condicional).
+     */
+    @Query("""
+            SELECT new com.foro.alura.hpg.api.domain.topico.VersionTopico(t.id, t.version, t.fechaDeActualizacion)
+            FROM Topico t
+            WHERE t.id = :id AND t.activo = true
+            """)
+    @Transactional(readOnly = true)
+    Optional<VersionTopico> buscarVersion(Long id);
+
     // Verificamos duplicados (para saber si el tópico ya lo tenías)
-    // Spring genera el SQL: SELECT count(*) > 0 FROM topicos WHERE titulo = ? AND mensaje = ?
-    boolean existsByTituloAndMensaje(String titulo, String mensaje);
+    // Spring genera el SQL: SELECT ... FROM topicos WHERE hash_contenido = ? LIMIT 1 (usa el índice único)
+    boolean existsByHashContenido(String hashContenido);
 
     /**
-     * Busca tópicos filtrando por nombre de curso (que contenga el texto)
-     * y por el año de creación.
+     * Hashes de contenido con id mayor al indicado, en orden de id (carga del FiltroBloomTopicos).
      */
     @Query("""
-            SELECT t FROM Topico t 
-            WHERE t.curso LIKE %:nombreCurso% 
-            AND YEAR(t.fechaDeCreacion) = :anio
+            SELECT new com.foro.alura.hpg.api.domain.topico.HashContenidoTopico(t.id, t.hashContenido)
+            FROM Topico t
+            WHERE t.id > :id AND t.hashContenido IS NOT NULL
+            ORDER BY t.id
             """)
-    Page<Topico> buscarPorCursoYAnio(String nombreCurso, Integer anio, Pageable paginacion);
+    List<HashContenidoTopico> hashesDeContenidoDesde(Long id, Pageable limite);
 
-    Page<Topico> findAllByActivoTrue(Pageable paginacion);
+    /**
+     * De los hashes recibidos, devuelve los que ya existen en la tabla (importación masiva).
+     */
+    @Query("SELECT t.hashContenido FROM Topico t WHERE t.hashContenido IN :hashes")
+    List<String> hashesExistentes(Collection<String> hashes);
+
+    /**
+     * Recorre los tópicos (con su autor) para la exportación completa, con filtros opcionales.
+     * * Devuelve un Stream respaldado por un cursor del lado del servidor: el driver trae las filas
+     * de a 'fetch size' en lugar de cargar todo el resultado en memoria.
+     * * Debe consumirse dentro de una transacción y cerrarse al terminar (try-with-resources).
+     */
+    @EntityGraph(attributePaths = "autor")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT t FROM Topico t
+            WHERE t.activo = true
+            AND (:prefijoCurso IS NULL OR t.cursoNormalizado LIKE :prefijoCurso ESCAPE '!')
+            AND (:status IS NULL OR t.status = :status)
+            AND (:desde IS NULL OR t.fechaDeCreacion >= :desde)
+            AND (:hasta IS NULL OR t.fechaDeCreacion < :hasta)
+            ORDER BY t.id
+            """)
+    Stream<Topico> exportar(String prefijoCurso, Status status, LocalDateTime desde, LocalDateTime hasta);
+
+
+    /**
+     * Lote de tópicos por id (GET /topicos?ids= y POST /topicos/batch): un solo SELECT ... IN con el autor.
+     * * El orden del resultado no está garantizado; el controller lo reordena según el pedido.
+     */
+    @EntityGraph(attributePaths = "autor")
+    @Transactional(readOnly = true)
+    List<Topico> findAllByIdInAndActivoTrue(Collection<Long> ids);
+
+    /**
+     * Busca tópicos cuyo curso comience con el prefijo indicado y que se hayan creado
+     * dentro del rango [desde, hasta).
+     * * El prefijo se compara contra 'curso_normalizado' (ver NormalizadorTexto.patronPrefijo),
+     * por eso la consulta puede recorrer el índice idx_topicos_curso_normalizado_fecha
+     * en lugar de escanear toda la tabla como hacían LIKE '%..%' y YEAR(...).
+     */
+    @EntityGraph(attributePaths = "autor")
+    @Query("""
+            SELECT t FROM Topico t
+            WHERE t.activo = true
+            AND t.cursoNormalizado LIKE :prefijoCurso ESCAPE '!'
+            AND t.fechaDeCreacion >= :desde
+            AND t.fechaDeCreacion < :hasta
+            """)
+    Slice<Topico> buscarPorCursoYFecha(String prefijoCurso, LocalDateTime desde, LocalDateTime hasta, Pageable paginacion);
+
+    @Query("""
+            SELECT COUNT(t) FROM Topico t
+            WHERE t.activo = true
+            AND t.cursoNormalizado LIKE :prefijoCurso ESCAPE '!'
+            AND t.fechaDeCreacion >= :desde
+            AND t.fechaDeCreacion < :hasta
+            """)
+    long contarPorCursoYFecha(String prefijoCurso, LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Busca tópicos cuyo curso comience con el prefijo indicado (sin filtrar por fecha).
+     */
+    @EntityGraph(attributePaths = "autor")
+    @Query("""
+            SELECT t FROM Topico t
+            WHERE t.activo = true
+            AND t.cursoNormalizado LIKE :prefijoCurso ESCAPE '!'
+            """)
+    Slice<Topico> buscarPorCurso(String prefijoCurso, Pageable paginacion);
+
+    @Query("""
+            SELECT COUNT(t) FROM Topico t
+            WHERE t.activo = true
+            AND t.cursoNormalizado LIKE :prefijoCurso ESCAPE '!'
+            """)
+    long contarPorCurso(String prefijoCurso);
+
+    /**
+     * Busca tópicos creados dentro del rango [desde, hasta), usando el índice sobre fecha_de_creacion.
+     */
+    @EntityGraph(attributePaths = "autor")
+    @Query("""
+            SELECT t FROM Topico t
+            WHERE t.activo = true
+            AND t.fechaDeCreacion >= :desde
+            AND t.fechaDeCreacion < :hasta
+            """)
+    Slice<Topico> buscarPorFecha(LocalDateTime desde, LocalDateTime hasta, Pageable paginacion);
+
+    @Query("""
+            SELECT COUNT(t) FROM Topico t
+            WHERE t.activo = true
+            AND t.fechaDeCreacion >= :desde
+            AND t.fechaDeCreacion < :hasta
+            """)
+    long contarPorFecha(LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Listado por defecto: solo tópicos no eliminados de la tabla caliente.
+     * * Los listados devuelven Slice (se pide una fila extra para saber si hay más) y nunca
+     * ejecutan COUNT(*) por su cuenta: el total se pide aparte con las consultas 'contar...'
+     * solo cuando el cliente lo necesita (ver TotalesAproximadosTopicos.Modo).
+     */
+    @EntityGraph(attributePaths = "autor")
+    Slice<Topico> findAllByActivoTrue(Pageable paginacion);
+
+    /**
+     * Paginación por cursor (keyset): primera página en orden (fechaDeCreacion, id).
+     * * Al devolver List en lugar de Page, Spring Data no ejecuta el COUNT(*).
+     * * Ambas consultas recorren el índice idx_topicos_fecha_de_creacion_id (ver V4).
+     */
+    @EntityGraph(attributePaths = "autor")
+    @Query("""
+            SELECT t FROM Topico t
+            WHERE t.activo = true
+            ORDER BY t.fechaDeCreacion ASC, t.id ASC
+            """)
+    List<Topico> primeraPaginaPorCursor(Pageable limite);
+
+    /**
+     * Tópicos ubicados después del cursor (fecha, id), en orden ascendente.
+     */
+    @EntityGraph(attributePaths = "autor")
+    @Query("""
+            SELECT t FROM Topico t
+            WHERE t.activo = true
+            AND (t.fechaDeCreacion > :fecha
+               OR (t.fechaDeCreacion = :fecha AND t.id > :id))
+            ORDER BY t.fechaDeCreacion ASC, t.id ASC
+            """)
+    List<Topico> paginaSiguientePorCursor(LocalDateTime fecha, Long id, Pageable limite);
+
+    /**
+     * Tópicos ubicados antes del cursor (fecha, id), en orden descendente.
+     * * El llamador debe invertir el resultado para mostrarlo en orden ascendente.
+     */
+    @EntityGraph(attributePaths = "autor")
+    @Query("""
+            SELECT t FROM Topico t
+            WHERE t.activo = true
+            AND (t.fechaDeCreacion < :fecha
+               OR (t.fechaDeCreacion = :fecha AND t.id < :id))
+            ORDER BY t.fechaDeCreacion DESC, t.id DESC
+            """)
+    List<Topico> paginaAnteriorPorCursor(LocalDateTime fecha, Long id, Pageable limite);
 }
\ No newline at end of file
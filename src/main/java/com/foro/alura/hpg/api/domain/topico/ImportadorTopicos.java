@@ -0,0 +1,282 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foro.alura.hpg.api.domain.topico.DatosResumenImportacion.DatosErrorImportacion;
+import com.foro.alura.hpg.api.domain.usuario.IUsuarioRepository;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de tópicos desde un flujo NDJSON (un DatosRegistroTopico por línea).
+ * * El archivo se lee línea por línea y se procesa en lotes de 'tamanio-lote' filas:
+ * la memoria usada depende del tamaño del lote, no del tamaño del archivo.
+ * * Como Topico usa GenerationType.IDENTITY, Hibernate no puede agrupar los INSERT;
+ * por eso cada lote se inserta con un batch JDBC (JdbcTemplate) y se confirma en su propia transacción.
+ * * Los duplicados y los usuarios inexistentes se detectan antes de insertar, con una consulta IN por lote.
+ * Si aun así el batch falla (ej: otro POST insertó el mismo tópico), el lote se reintenta fila por fila.
+ * * El índice de búsqueda, el filtro de Bloom y las estadísticas se actualizan con los datos de cada fila
+ * y las claves generadas por el batch: nunca se cargan entidades (no crecen en el contexto de persistencia).
+ * * En /topicos/stream se publica un único evento IMPORTADO al terminar, no uno por fila.
+ */
+@Service
+public class ImportadorTopicos {
+
+    private static final int MAX_ERRORES_INFORMADOS = 1000;
+
+    private static final String SQL_INSERT = """
+            insert into topicos
+                (titulo, mensaje, fecha_de_creacion, fecha_de_actualizacion, status, curso, curso_normalizado,
+                 hash_contenido, usuario_id, activo, version)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, 1, 0)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ITopicoRepository iTopicoRepository;
+
+    @Autowired
+    private ITopicoHistoricoRepository iTopicoHistoricoRepository;
+
+    @Autowired
+    private IUsuarioRepository iUsuarioRepository;
+
+    @Autowired
+    private FiltroBloomTopicos filtroDuplicados;
+
+    @Autowired
+    private IndiceBusquedaTopicos indiceBusqueda;
+
+    @Autowired
+    private EstadisticasTopicos estadisticasTopicos;
+
+    @Autowired
+    private CanalEventosTopicos canalEventos;
+
+    @Value("${api.topicos.importacion.tamanio-lote:500}")
+    private int tamanioLote;
+
+    public DatosResumenImportacion importar(InputStream ndjson) throws IOException {
+        var inicio = System.nanoTime();
+        var resultado = new Resultado();
+        var lote = new ArrayList<Fila>(tamanioLote);
+
+        try (var lector = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String linea;
+            long numeroLinea = 0;
+
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                resultado.filasLeidas++;
+
+                var fila = leerFila(numeroLinea, linea, resultado);
+                if (fila != null) {
+                    lote.add(fila);
+                }
+
+                if (lote.size() >= tamanioLote) {
+                    procesarLote(lote, resultado);
+                    lote.clear();
+                }
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            procesarLote(lote, resultado);
+        }
+        if (resultado.insertados > 0) {
+            canalEventos.publicar(DatosEventoTopico.Tipo.IMPORTADO, null, null, null);
+        }
+
+        var duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        var filasPorSegundo = duracionMs == 0 ? resultado.insertados : resultado.insertados * 1000.0 / duracionMs;
+        return new DatosResumenImportacion(resultado.filasLeidas, resultado.insertados, resultado.rechazados,
+                resultado.errores, resultado.erroresTruncados, duracionMs, filasPorSegundo);
+    }
+
+    private Fila leerFila(long numeroLinea, String linea, Resultado resultado) {
+        DatosRegistroTopico datos;
+        try {
+            datos = objectMapper.readValue(linea, DatosRegistroTopico.class);
+        } catch (JsonProcessingException exception) {
+            resultado.rechazar(numeroLinea, "JSON inválido: " + exception.getOriginalMessage());
+            return null;
+        }
+
+        var violaciones = validator.validate(datos);
+        if (!violaciones.isEmpty()) {
+            resultado.rechazar(numeroLinea, violaciones.stream()
+                    .map(violacion -> violacion.getPropertyPath() + ": " + violacion.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+
+        return new Fila(numeroLinea, datos, Topico.calcularHashContenido(datos.titulo(), datos.mensaje()));
+    }
+
+    private void procesarLote(List<Fila> lote, Resultado resultado) {
+        // 1. Descartamos duplicados (dentro del lote y contra la base) y autores inexistentes.
+        var hashes = lote.stream().map(Fila::hash).toList();
+        var hashesExistentes = new HashSet<>(iTopicoRepository.hashesExistentes(hashes));
+        hashesExistentes.addAll(iTopicoHistoricoRepository.hashesArchivados(hashes));
+        var nombresAutores = new HashMap<Long, String>();
+        iUsuarioRepository.nombresPorId(lote.stream().map(fila -> fila.datos().usuarioId()).distinct().toList())
+                .forEach(usuario -> nombresAutores.put(usuario.id(), usuario.nombre()));
+
+        var validas = new ArrayList<Fila>(lote.size());
+        for (var fila : lote) {
+            if (!nombresAutores.containsKey(fila.datos().usuarioId())) {
+                resultado.rechazar(fila.linea(), "El usuario " + fila.datos().usuarioId() + " no existe");
+            } else if (!hashesExistentes.add(fila.hash())) {
+                resultado.rechazar(fila.linea(), "El tópico ya existe (mismo título y mensaje)");
+            } else {
+                validas.add(fila);
+            }
+        }
+
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        // 2. Un único batch JDBC por lote, confirmado en su propia transacción.
+        // La fecha va sin fracción de segundo (columna datetime): así el DTO indexado coincide con la fila.
+        var ahora = LocalDateTime.now().withNano(0);
+        var insertadas = new LinkedHashMap<Fila, Long>();
+        try {
+            var claves = new GeneratedKeyHolder();
+            transactionTemplate.executeWithoutResult(estado ->
+                    jdbcTemplate.batchUpdate(crearInsert(), new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement sentencia, int i) throws SQLException {
+                            completarInsert(sentencia, validas.get(i), ahora);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return validas.size();
+                        }
+                    }, claves));
+            for (int i = 0; i < validas.size(); i++) {
+                insertadas.put(validas.get(i), id(claves.getKeyList().get(i)));
+            }
+        } catch (DataIntegrityViolationException exception) {
+            // 3. Si el batch falló por una carrera con otro registro, reintentamos fila por fila.
+            for (var fila : validas) {
+                try {
+                    KeyHolder clave = new GeneratedKeyHolder();
+                    transactionTemplate.executeWithoutResult(estado -> jdbcTemplate.update(conexion -> {
+                        var sentencia = crearInsert().createPreparedStatement(conexion);
+                        completarInsert(sentencia, fila, ahora);
+                        return sentencia;
+                    }, clave));
+                    insertadas.put(fila, id(clave.getKeys()));
+                } catch (DataIntegrityViolationException errorFila) {
+                    resultado.rechazar(fila.linea(), "El tópico ya existe o viola una restricción de integridad");
+                }
+            }
+        }
+
+        resultado.insertados += insertadas.size();
+        actualizarEstructurasEnMemoria(insertadas, nombresAutores, ahora);
+    }
+
+    /**
+     * Mantiene al día el filtro de Bloom, el índice de búsqueda y las estadísticas con los tópicos recién insertados,
+     * armados con los datos de la fila y el id generado (sin volver a leerlos de la base).
+     */
+    private void actualizarEstructurasEnMemoria(Map<Fila, Long> insertadas, Map<Long, String> nombresAutores,
+                                                LocalDateTime fechaDeCreacion) {
+        insertadas.forEach((fila, id) -> {
+            var datos = fila.datos();
+            filtroDuplicados.agregar(fila.hash());
+            indiceBusqueda.indexar(new DatosRespuestaTopico(id, datos.titulo(), datos.mensaje(), fechaDeCreacion,
+                    datos.curso(), nombresAutores.get(datos.usuarioId()), Status.ABIERTO));
+            estadisticasTopicos.registrar(new EstadisticasTopicos.Clave(datos.curso(), Status.ABIERTO,
+                    fechaDeCreacion.getYear(), datos.usuarioId()));
+        });
+    }
+
+    private static PreparedStatementCreator crearInsert() {
+        return conexion -> conexion.prepareStatement(SQL_INSERT, new String[]{"id"});
+    }
+
+    private static Long id(Map<String, Object> claves) {
+        // MySQL devuelve la clave como GENERATED_KEY y H2 como ID: se toma la única columna.
+        return ((Number) claves.values().iterator().next()).longValue();
+    }
+
+    private void completarInsert(PreparedStatement sentencia, Fila fila, LocalDateTime fechaDeCreacion) throws SQLException {
+        var datos = fila.datos();
+        sentencia.setString(1, datos.titulo());
+        sentencia.setString(2, datos.mensaje());
+        var ahora = Timestamp.valueOf(fechaDeCreacion);
+        sentencia.setTimestamp(3, ahora);
+        sentencia.setTimestamp(4, ahora);
+        sentencia.setString(5, Status.ABIERTO.name());
+        sentencia.setString(6, datos.curso());
+        sentencia.setString(7, NormalizadorTexto.normalizar(datos.curso()));
+        sentencia.setString(8, fila.hash());
+        sentencia.setLong(9, datos.usuarioId());
+    }
+
+    private record Fila(long linea, DatosRegistroTopico datos, String hash) {
+    }
+
+    private static class Resultado {
+        private long filasLeidas;
+        private long insertados;
+        private long rechazados;
+        private final List<DatosErrorImportacion> errores = new ArrayList<>();
+        private boolean erroresTruncados;
+
+        private void rechazar(long linea, String mensaje) {
+            rechazados++;
+            if (errores.size() < MAX_ERRORES_INFORMADOS) {
+                errores.add(new DatosErrorImportacion(linea, mensaje));
+            } else {
+                erroresTruncados = true;
+            }
+        }
+    }
+}
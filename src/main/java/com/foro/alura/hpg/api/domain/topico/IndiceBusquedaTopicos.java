@@ -0,0 +1,286 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import com.foro.alura.hpg.api.infra.transaccion.DespuesDelCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre el título y el mensaje de los tópicos.
+ * * Evita enviar a MySQL búsquedas con LIKE '%..%' que recorren toda la tabla.
+ * * El texto se normaliza con NormalizadorTexto (minúsculas y sin tildes), se divide en palabras
+ * y se descartan las palabras vacías más comunes del español.
+ * * Los resultados se ordenan por relevancia con BM25; las palabras del título pesan el doble.
+ * * El índice se construye al iniciar la aplicación y el TopicoController lo mantiene al día
+ * en cada alta, modificación y baja (los cambios se aplican después del commit). Cada 'reconstruccion-ms'
+ * se vuelve a construir para corregir cualquier desvío (ej: cambios hechos por SQL).
+ * * Incluye los tópicos archivados sin eliminar, que se siguen leyendo por id y listando con 'incluirArchivados':
+ * se carga desde 'topicos_historico', así que un tópico cerrado o resuelto sigue apareciendo en la búsqueda
+ * después de que el ArchivadorTopicos lo mueva a 'topicos_archivo'.
+ */
+@Component
+public class IndiceBusquedaTopicos {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int PESO_TITULO = 2;
+    private static final int TAMANIO_LOTE_CARGA = 500;
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los",
+            "mi", "no", "o", "para", "por", "que", "se", "si", "su", "un", "una", "y");
+
+    @Autowired
+    private ITopicoHistoricoRepository iTopicoHistoricoRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Indice indice = new Indice();
+
+    /**
+     * Cambios (altas, modificaciones y bajas) recibidos mientras construir() carga el índice nuevo.
+     * * Se vuelven a aplicar sobre el índice nuevo antes de reemplazar al actual; null fuera de una reconstrucción.
+     */
+    private List<Consumer<Indice>> cambiosDuranteConstruccion;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${api.topicos.busqueda.reconstruccion-ms:3600000}",
+            fixedDelayString = "${api.topicos.busqueda.reconstruccion-ms:3600000}")
+    public void construirProgramado() {
+        construir();
+    }
+
+    /**
+     * Carga completa: recorre 'topicos_historico' por id (sin OFFSET ni COUNT) en lotes de tópicos con su autor.
+     * * Si el índice ya tenía datos, se construye uno nuevo aparte y se reemplaza al terminar:
+     * mientras tanto las búsquedas siguen respondiendo con el índice anterior completo.
+     */
+    public synchronized void construir() {
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteConstruccion = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        var nuevo = new Indice();
+        try {
+            var lote = PageRequest.of(0, TAMANIO_LOTE_CARGA);
+            var topicos = iTopicoHistoricoRepository.paginaParaIndice(0L, lote);
+
+            while (!topicos.isEmpty()) {
+                topicos.forEach(topico -> nuevo.agregar(new Documento(new DatosRespuestaTopico(topico))));
+                topicos = iTopicoHistoricoRepository.paginaParaIndice(topicos.get(topicos.size() - 1).getId(), lote);
+            }
+        } catch (RuntimeException exception) {
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteConstruccion = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw exception;
+        }
+
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteConstruccion.forEach(cambio -> cambio.accept(nuevo));
+            cambiosDuranteConstruccion = null;
+            indice = nuevo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega o reemplaza un tópico en el índice una vez confirmada la transacción actual.
+     */
+    public void indexar(DatosRespuestaTopico datos) {
+        DespuesDelCommit.ejecutar(() -> {
+            var documento = new Documento(datos);
+            aplicar(indice -> indice.agregar(documento));
+        });
+    }
+
+    /**
+     * Quita un tópico del índice una vez confirmada la transacción actual.
+     */
+    public void quitar(Long id) {
+        DespuesDelCommit.ejecutar(() -> aplicar(indice -> indice.eliminar(id)));
+    }
+
+    public DatosResultadoBusquedaTopicos buscar(String consulta, int pagina, int tamanio) {
+        var inicio = System.nanoTime();
+        var palabras = new LinkedHashSet<>(tokenizar(consulta));
+
+        List<DatosRespuestaTopico> contenido = List.of();
+        var total = 0;
+
+        lock.readLock().lock();
+        try {
+            if (!palabras.isEmpty() && !indice.documentos.isEmpty()) {
+                var puntajes = indice.puntuar(palabras);
+                total = puntajes.size();
+
+                contenido = puntajes.entrySet().stream()
+                        .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                        .skip((long) pagina * tamanio)
+                        .limit(tamanio)
+                        .map(entrada -> indice.documentos.get(entrada.getKey()).datos())
+                        .toList();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        var tiempoMicros = (System.nanoTime() - inicio) / 1_000;
+        return new DatosResultadoBusquedaTopicos(contenido, pagina, tamanio, total, List.copyOf(palabras), tiempoMicros);
+    }
+
+    public int getCantidadDocumentos() {
+        lock.readLock().lock();
+        try {
+            return indice.documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getCantidadTerminos() {
+        lock.readLock().lock();
+        try {
+            return indice.terminos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica un cambio al índice actual y, si hay una reconstrucción en curso, lo anota para el índice nuevo.
+     */
+    private void aplicar(Consumer<Indice> cambio) {
+        lock.writeLock().lock();
+        try {
+            cambio.accept(indice);
+            if (cambiosDuranteConstruccion != null) {
+                cambiosDuranteConstruccion.add(cambio);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+
+        var palabras = new ArrayList<String>();
+        for (var palabra : SEPARADORES.split(NormalizadorTexto.normalizar(texto))) {
+            if (!palabra.isEmpty() && !PALABRAS_VACIAS.contains(palabra)) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    /**
+     * Términos y documentos del índice. No es thread-safe: se usa con el lock de la clase
+     * o, durante construir(), solo desde el hilo que lo está cargando.
+     */
+    private static class Indice {
+
+        private final Map<String, Map<Long, Integer>> terminos = new HashMap<>();
+        private final Map<Long, Documento> documentos = new HashMap<>();
+        private long longitudTotal;
+
+        void agregar(Documento documento) {
+            var id = documento.datos().id();
+            eliminar(id);
+            documento.frecuencias().forEach((palabra, frecuencia) ->
+                    terminos.computeIfAbsent(palabra, p -> new HashMap<>()).put(id, frecuencia));
+            documentos.put(id, documento);
+            longitudTotal += documento.longitud();
+        }
+
+        void eliminar(Long id) {
+            var anterior = documentos.remove(id);
+            if (anterior == null) {
+                return;
+            }
+
+            longitudTotal -= anterior.longitud();
+            for (var palabra : anterior.frecuencias().keySet()) {
+                var apariciones = terminos.get(palabra);
+                if (apariciones != null) {
+                    apariciones.remove(id);
+                    if (apariciones.isEmpty()) {
+                        terminos.remove(palabra);
+                    }
+                }
+            }
+        }
+
+        /**
+         * BM25: premia las palabras poco frecuentes en el índice y penaliza los documentos muy largos.
+         */
+        Map<Long, Double> puntuar(Set<String> palabras) {
+            var cantidadDocumentos = documentos.size();
+            var longitudPromedio = (double) longitudTotal / cantidadDocumentos;
+            var puntajes = new HashMap<Long, Double>();
+
+            for (var palabra : palabras) {
+                var apariciones = terminos.get(palabra);
+                if (apariciones == null) {
+                    continue;
+                }
+
+                var df = apariciones.size();
+                var idf = Math.log(1 + (cantidadDocumentos - df + 0.5) / (df + 0.5));
+
+                apariciones.forEach((id, frecuencia) -> {
+                    var longitud = documentos.get(id).longitud();
+                    var tf = frecuencia * (K1 + 1) / (frecuencia + K1 * (1 - B + B * longitud / longitudPromedio));
+                    puntajes.merge(id, idf * tf, Double::sum);
+                });
+            }
+            return puntajes;
+        }
+    }
+
+    /**
+     * Tópico ya tokenizado: la frecuencia de cada palabra (el título pesa PESO_TITULO) y la longitud total.
+     */
+    private record Documento(DatosRespuestaTopico datos, Map<String, Integer> frecuencias, int longitud) {
+
+        Documento(DatosRespuestaTopico datos) {
+            this(datos, frecuencias(datos));
+        }
+
+        private Documento(DatosRespuestaTopico datos, Map<String, Integer> frecuencias) {
+            this(datos, frecuencias, frecuencias.values().stream().mapToInt(Integer::intValue).sum());
+        }
+
+        private static Map<String, Integer> frecuencias(DatosRespuestaTopico datos) {
+            var frecuencias = new HashMap<String, Integer>();
+            tokenizar(datos.titulo()).forEach(palabra -> frecuencias.merge(palabra, PESO_TITULO, Integer::sum));
+            tokenizar(datos.mensaje()).forEach(palabra -> frecuencias.merge(palabra, 1, Integer::sum));
+            return frecuencias;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON ya serializado (UTF-8) de un DatosRespuestaTopico en una versión concreta del tópico.
+ * * Dentro de un listado, Jackson copia estos bytes tal cual (writeRawValue) en lugar de volver
+ * a recorrer el DTO y convertir fechas y enums; el detalle los escribe directo en la respuesta.
+ * * La variante gzip se calcula la primera vez que se pide y queda guardada junto al JSON.
+ * * Los arreglos devueltos son compartidos entre requests: no se deben modificar.
+ */
+public final class JsonTopico implements JsonSerializable {
+
+    private final Long version;
+    private final SerializedString json;
+    private volatile byte[] gzip;
+
+    JsonTopico(Long version, byte[] utf8) {
+        this.version = version;
+        this.json = new SerializedString(new String(utf8, StandardCharsets.UTF_8));
+        // SerializedString guarda los bytes UTF-8 la primera vez que se los pide: lo hacemos ahora y no en cada request.
+        this.json.asUnquotedUTF8();
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public byte[] getBytes() {
+        return json.asUnquotedUTF8();
+    }
+
+    public byte[] getGzip() {
+        var comprimido = gzip;
+        if (comprimido == null) {
+            comprimido = comprimir(getBytes());
+            gzip = comprimido;
+        }
+        return comprimido;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generador, SerializerProvider proveedor) throws IOException {
+        generador.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generador, SerializerProvider proveedor, TypeSerializer tipo) throws IOException {
+        serialize(generador, proveedor);
+    }
+
+    private static byte[] comprimir(byte[] datos) {
+        var salida = new ByteArrayOutputStream(datos.length / 2 + 32);
+        try (var gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return salida.toByteArray();
+    }
+}
@@ -0,0 +1,39 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utilidades para normalizar texto en español antes de compararlo o indexarlo.
+ * * Pasa a minúsculas, quita tildes y diéresis (ej: "Programación" -> "programacion")
+ * y colapsa los espacios repetidos.
+ */
+public final class NormalizadorTexto {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private NormalizadorTexto() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        var sinTildes = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinTildes.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    /**
+     * Arma un patrón LIKE de prefijo ("texto%") escapando los comodines con '!'.
+     * * Las consultas que lo usen deben declarar ESCAPE '!'.
+     */
+    public static String patronPrefijo(String texto) {
+        var escapado = normalizar(texto)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return escapado + "%";
+    }
+}
@@ -8,7 +8,11 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Table(name = "topicos")
 @Entity(name = "Topico")
@@ -31,6 +35,12 @@ public class Topico {
     @Column(name = "fecha_de_creacion")
     private LocalDateTime fechaDeCreacion;
 
+    @Column(name = "fecha_de_actualizacion")
+    private LocalDateTime fechaDeActualizacion;
+
+    @Version // Hibernate la incrementa en cada UPDATE; se usa como ETag del tópico.
+    private Long version;
+
     @Enumerated(EnumType.STRING) // Indica que en la DB se guardará el texto (ej. "ABIERTO") y no el número.
     private Status status;
 
@@ -40,6 +50,12 @@ public class Topico {
 
     private String curso;
 
+    @Column(name = "curso_normalizado") // Copia normalizada de 'curso' para búsquedas por prefijo con índice.
+    private String cursoNormalizado;
+
+    @Column(name = "hash_contenido", columnDefinition = "CHAR(64)") // SHA-256 de título + mensaje, con índice único para evitar duplicados.
+    private String hashContenido;
+
     /**
      * Constructor para persistir un nuevo Tópico.
      * * Este constructor es el puente entre la capa de presentación (DTO) y la capa de persistencia (Entidad).
@@ -51,9 +67,12 @@ public class Topico {
         this.activo = true;
         this.titulo = datos.titulo();
         this.mensaje = datos.mensaje();
+        this.hashContenido = calcularHashContenido(datos.titulo(), datos.mensaje());
         this.fechaDeCreacion = LocalDateTime.now(); // Sincroniza la creación con la hora del servidor.
+        this.fechaDeActualizacion = this.fechaDeCreacion;
         this.status = Status.ABIERTO;               // Definición de estado inicial según regla de negocio.
         this.curso = datos.curso();
+        this.cursoNormalizado = NormalizadorTexto.normalizar(datos.curso());
         this.autor = usuario;                       // Vincula este tópico con un usuario existente.
     }
 
@@ -69,12 +88,40 @@ public class Topico {
             this.mensaje = datos.mensaje();
         }
 
+        this.hashContenido = calcularHashContenido(this.titulo, this.mensaje);
+
         if (datos.curso() != null) {
             this.curso = datos.curso();
+            this.cursoNormalizado = NormalizadorTexto.normalizar(datos.curso());
         }
     }
 
+    @PreUpdate
+    private void alActualizar() {
+        this.fechaDeActualizacion = LocalDateTime.now();
+    }
+
+    /**
+     * Eliminación lógica: el tópico deja de aparecer en los listados y ArchivadorTopicos
+     * lo mueve más tarde a 'topicos_archivo'.
+     * * Se libera el hash de contenido para que el mismo título y mensaje puedan volver a publicarse.
+     */
     public void eliminar() {
         this.activo = false;
+        this.hashContenido = null;
+    }
+
+    /**
+     * Calcula el hash SHA-256 (hexadecimal) que identifica el contenido de un tópico.
+     * * Título y mensaje se separan con un carácter nulo para que ("ab", "c") y ("a", "bc") no coincidan.
+     */
+    public static String calcularHashContenido(String titulo, String mensaje) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            var contenido = titulo + '\u0000' + mensaje;
+            return HexFormat.of().formatHex(digest.digest(contenido.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM", exception);
+        }
     }
 }
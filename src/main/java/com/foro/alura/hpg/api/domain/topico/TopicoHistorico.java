@@ -0,0 +1,52 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tópico leído desde la vista 'topicos_historico' (tabla caliente + topicos_archivo).
+ * * Es de solo lectura: se usa en los listados que piden incluir los tópicos archivados y en la exportación completa.
+ */
+@Immutable
+@Table(name = "topicos_historico")
+@Entity(name = "TopicoHistorico")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class TopicoHistorico {
+
+    @Id
+    private Long id;
+
+    @Column(columnDefinition = "TINYINT(1)")
+    private Boolean activo;
+
+    private String titulo;
+    private String mensaje;
+
+    @Column(name = "fecha_de_creacion")
+    private LocalDateTime fechaDeCreacion;
+
+    @Column(name = "fecha_de_actualizacion")
+    private LocalDateTime fechaDeActualizacion;
+
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id")
+    private Usuario autor;
+
+    private String curso;
+
+    @Column(name = "curso_normalizado")
+    private String cursoNormalizado;
+}
@@ -0,0 +1,109 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Totales aproximados de los listados de tópicos, uno por combinación de filtros.
+ * * Evita ejecutar un COUNT(*) junto a cada página: el primer pedido de un filtro cuenta una vez
+ * y los siguientes reciben el valor guardado.
+ * * Cada 'refresco-ms' se vuelven a contar los filtros leídos desde el refresco anterior;
+ * los que nadie leyó se descartan. Como máximo se guardan 'max-entradas' filtros.
+ */
+@Component
+public class TotalesAproximadosTopicos {
+
+    private static final Logger log = LoggerFactory.getLogger(TotalesAproximadosTopicos.class);
+
+    /**
+     * Cómo informar el total de un listado: EXACTO (COUNT en cada pedido), APROXIMADO (esta cache)
+     * o NINGUNO (Slice, solo indica si hay una página siguiente).
+     */
+    public enum Modo {
+        EXACTO,
+        APROXIMADO,
+        NINGUNO
+    }
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final int maxEntradas;
+
+    public TotalesAproximadosTopicos(@Value("${api.topicos.totales.max-entradas:1000}") int maxEntradas) {
+        this.maxEntradas = maxEntradas;
+    }
+
+    /**
+     * Devuelve el total guardado para el filtro o, si todavía no existe, lo cuenta con 'contar' y lo guarda.
+     */
+    public long obtener(String filtro, LongSupplier contar) {
+        var entrada = entradas.get(filtro);
+        if (entrada != null) {
+            entrada.leida = true;
+            return entrada.total;
+        }
+
+        var nueva = new Entrada(contar, contar.getAsLong());
+        if (maxEntradas > 0) {
+            if (entradas.size() >= maxEntradas) {
+                entradas.keySet().stream().findAny().ifPresent(entradas::remove);
+            }
+            entradas.put(filtro, nueva);
+        }
+        return nueva.total;
+    }
+
+    /**
+     * Reemplaza el total guardado del filtro por uno exacto (ej: el que demuestra la última página), si existe.
+     */
+    public void corregir(String filtro, long total) {
+        var entrada = entradas.get(filtro);
+        if (entrada != null) {
+            entrada.total = total;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${api.topicos.totales.refresco-ms:60000}",
+            fixedDelayString = "${api.topicos.totales.refresco-ms:60000}")
+    public void refrescar() {
+        entradas.forEach((filtro, entrada) -> {
+            if (!entrada.leida) {
+                entradas.remove(filtro, entrada);
+                return;
+            }
+            try {
+                entrada.leida = false;
+                entrada.total = entrada.contar.getAsLong();
+            } catch (RuntimeException exception) {
+                // Si el COUNT falla se conserva el valor anterior hasta el próximo refresco.
+                log.warn("No se pudo refrescar el total aproximado de '{}'", filtro, exception);
+            }
+        });
+    }
+
+    public void limpiar() {
+        entradas.clear();
+    }
+
+    public int getTamanio() {
+        return entradas.size();
+    }
+
+    private static class Entrada {
+
+        private final LongSupplier contar;
+        private volatile long total;
+        private volatile boolean leida = true;
+
+        Entrada(LongSupplier contar, long total) {
+            this.contar = contar;
+            this.total = total;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+
+/**
+ * Versión de un tópico: lo mínimo necesario para responder un GET condicional.
+ * * Se obtiene con una proyección por clave primaria, sin cargar ni serializar la entidad completa.
+ */
+public record VersionTopico(Long id, Long version, LocalDateTime fechaDeActualizacion) {
+
+    public VersionTopico(Topico topico) {
+        this(topico.getId(), topico.getVersion(), topico.getFechaDeActualizacion());
+    }
+
+    public VersionTopico(TopicoHistorico topico) {
+        this(topico.getId(), topico.getVersion(), topico.getFechaDeActualizacion());
+    }
+
+    public String etag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * ETag de la variante gzip: otro cuerpo, otro validador fuerte (RFC 9110, 8.8.3).
+     */
+    public String etagGzip() {
+        return "\"" + id + "-" + version + "-gz\"";
+    }
+
+    public long ultimaModificacionMillis() {
+        return fechaDeActualizacion.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * ETag débil para una página de tópicos: cambia si cambia el contenido, el orden,
+     * la versión de alguno de ellos o cualquiera de los datos extra (ej: total, cursores).
+     */
+    public static String etagPagina(Collection<Topico> topicos, Object... extras) {
+        return etagVersiones(topicos.stream().map(VersionTopico::new).toList(), extras);
+    }
+
+    /**
+     * Igual que etagPagina, a partir de las versiones ya proyectadas (ej: tópicos de la vista histórica).
+     */
+    public static String etagVersiones(Collection<VersionTopico> versiones, Object... extras) {
+        var hash = 1L;
+        for (var version : versiones) {
+            hash = 31 * hash + version.id();
+            hash = 31 * hash + version.version();
+        }
+        for (var extra : extras) {
+            hash = 31 * hash + (extra == null ? 0 : extra.hashCode());
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+}
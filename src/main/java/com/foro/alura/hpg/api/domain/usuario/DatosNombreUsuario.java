@@ -0,0 +1,7 @@
+package com.foro.alura.hpg.api.domain.usuario;
+
+/**
+ * Id y nombre de un usuario (proyección para la importación masiva, sin cargar la entidad).
+ */
+public record DatosNombreUsuario(Long id, String nombre) {
+}
@@ -1,8 +1,13 @@
 package com.foro.alura.hpg.api.domain.usuario;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Interface que define la capa de acceso a datos para la entidad Usuario.
@@ -16,5 +21,17 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface IUsuarioRepository extends JpaRepository<Usuario, Long> {
+    /**
+     * Búsqueda del usuario autenticado (SecurityFilter y AutenticacionService).
+     * * Es readOnly para que, con la réplica de lectura habilitada, no cargue al primario.
+     */
+    @Transactional(readOnly = true)
     UserDetails findByEmail(String email);
+
+    /**
+     * De los ids recibidos, devuelve id y nombre de los usuarios existentes (importación masiva).
+     * * Es una proyección: no deja entidades Usuario en el contexto de persistencia.
+     */
+    @Query("SELECT new com.foro.alura.hpg.api.domain.usuario.DatosNombreUsuario(u.id, u.nombre) FROM Usuario u WHERE u.id IN :ids")
+    List<DatosNombreUsuario> nombresPorId(Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.foro.alura.hpg.api.infra.exceptions;
 
+import com.foro.alura.hpg.api.domain.topico.HashContenidoTopico;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -21,6 +25,32 @@ public class GestorDeErrores {
         return ResponseEntity.badRequest().body(errores.stream().map(DatosErrorValidacion::new).toList());
     }
 
+    @ExceptionHandler(ValidacionException.class)
+    public ResponseEntity gestionarErrorDeValidacion(ValidacionException exception) {
+        return ResponseEntity.badRequest().body(exception.getMessage());
+    }
+
+    @ExceptionHandler(LimiteDeSolicitudesException.class)
+    public ResponseEntity gestionarError429(LimiteDeSolicitudesException exception) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getReintentarEnSegundos()))
+                .body(exception.getMessage());
+    }
+
+    /**
+     * Violaciones de restricciones de la base de datos (índices únicos, claves foráneas).
+     * * El caso esperado es el índice uk_topicos_hash_contenido cuando dos registros iguales
+     * de un tópico llegan al mismo tiempo: respondemos igual que la validación de duplicados.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity gestionarErrorDeIntegridad(DataIntegrityViolationException exception) {
+        var detalle = String.valueOf(exception.getMostSpecificCause().getMessage()).toLowerCase();
+        if (detalle.contains("uk_topicos_hash_contenido")) {
+            return ResponseEntity.badRequest().body(HashContenidoTopico.MENSAJE_TOPICO_DUPLICADO);
+        }
+        return ResponseEntity.badRequest().body("Error: Los datos enviados violan una restricción de integridad.");
+    }
+
     public record DatosErrorValidacion(String campo, String mensaje) {
 
         public DatosErrorValidacion(FieldError error) {
@@ -0,0 +1,19 @@
+package com.foro.alura.hpg.api.infra.exceptions;
+
+/**
+ * Excepción para solicitudes rechazadas por límite de velocidad o por sobrecarga.
+ * * El GestorDeErrores la traduce a un 429 Too Many Requests con el encabezado Retry-After.
+ */
+public class LimiteDeSolicitudesException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public LimiteDeSolicitudesException(String mensaje, long reintentarEnSegundos) {
+        super(mensaje);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
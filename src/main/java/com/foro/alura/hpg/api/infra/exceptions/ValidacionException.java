@@ -0,0 +1,12 @@
+package com.foro.alura.hpg.api.infra.exceptions;
+
+/**
+ * Excepción para errores de validación de reglas de negocio o de parámetros de entrada.
+ * * El GestorDeErrores la traduce a un 400 Bad Request con el mensaje recibido.
+ */
+public class ValidacionException extends RuntimeException {
+
+    public ValidacionException(String mensaje) {
+        super(mensaje);
+    }
+}
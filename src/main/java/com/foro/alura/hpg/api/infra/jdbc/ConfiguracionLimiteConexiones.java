@@ -0,0 +1,56 @@
+package com.foro.alura.hpg.api.infra.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Activa el DataSourceConLimite cuando la aplicación corre con hilos virtuales
+ * (spring.threads.virtual.enabled=true) o cuando se pide explícitamente con api.jdbc.limite.habilitado=true.
+ * * La cantidad de permisos es igual al tamaño máximo de cada pool de Hikari (el primario y, si está
+ * habilitada, la réplica con su propio 'maximum-pool-size'), así los hilos que excedan el pool esperan
+ * en el semáforo (con tiempo máximo) y no dentro del pool ni en MySQL.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.jdbc.limite.habilitado", havingValue = "true")
+public class ConfiguracionLimiteConexiones {
+
+    @Bean
+    public static BeanPostProcessor limiteDeConexionesPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Solo se envuelven los pools reales: no los proxies ni el DataSourceLecturaEscritura que los combinan.
+                if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)
+                        && !(bean instanceof DataSourceLecturaEscritura)) {
+                    var maxConexiones = tamanioDelPool(dataSource, environment);
+                    var esperaMaximaMs = environment.getProperty("api.jdbc.limite.espera-maxima-ms", Long.class, 5000L);
+                    return new DataSourceConLimite(dataSource, maxConexiones, esperaMaximaMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Tamaño máximo del pool envuelto. Se llama después de inicializar el bean, cuando Hikari
+     * ya tiene aplicadas sus propiedades; si no es un pool de Hikari se usa la propiedad del primario.
+     */
+    private static int tamanioDelPool(DataSource dataSource, Environment environment) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException exception) {
+            // Sin acceso al pool: usamos la propiedad.
+        }
+        return environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+    }
+}
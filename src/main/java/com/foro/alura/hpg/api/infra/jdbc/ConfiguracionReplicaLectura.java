@@ -0,0 +1,121 @@
+package com.foro.alura.hpg.api.infra.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+
+/**
+ * Réplica de lectura (api.datasource.replica.habilitada=true).
+ * * Define dos pools de Hikari (primario con spring.datasource.*, réplica con api.datasource.replica.*)
+ * y expone como DataSource principal un DataSourceLecturaEscritura detrás de un LazyConnectionDataSourceProxy.
+ * * Las transacciones readOnly (listados, detalle, búsqueda del usuario autenticado) leen de la réplica;
+ * Flyway, las escrituras y todo lo que no esté en una transacción readOnly usan el primario.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.datasource.replica.habilitada", havingValue = "true")
+public class ConfiguracionReplicaLectura {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("api.datasource.replica.hikari")
+    public HikariDataSource dataSourceReplica(DataSourceProperties propiedades,
+                                              @Value("${api.datasource.replica.url}") String url,
+                                              @Value("${api.datasource.replica.username:${spring.datasource.username:}}") String usuario,
+                                              @Value("${api.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(propiedades.determineDriverClassName())
+                .url(url)
+                .username(usuario)
+                .password(password)
+                .build();
+    }
+
+    @Bean
+    public DataSourceLecturaEscritura dataSourceLecturaEscritura(
+            @Qualifier("dataSourcePrimario") DataSource primario,
+            @Qualifier("dataSourceReplica") DataSource replica,
+            @Value("${api.datasource.replica.ventana-lectura-propia-ms:5000}") long ventanaLecturaPropiaMs,
+            @Value("${api.datasource.replica.timeout-verificacion-segundos:2}") int timeoutVerificacionSegundos) {
+        return new DataSourceLecturaEscritura(primario, replica, ConfiguracionReplicaLectura::clienteActual,
+                ventanaLecturaPropiaMs, timeoutVerificacionSegundos);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceLecturaEscritura lecturaEscritura) {
+        return new LazyConnectionDataSourceProxy(lecturaEscritura);
+    }
+
+    @Bean
+    public MeterBinder metricasReplica(DataSourceLecturaEscritura lecturaEscritura) {
+        return registro -> {
+            Gauge.builder("api.datasource.replica.sana", lecturaEscritura, ds -> ds.isReplicaSana() ? 1 : 0).register(registro);
+            FunctionCounter.builder("api.datasource.conexiones", lecturaEscritura, DataSourceLecturaEscritura::getConexionesPrimario)
+                    .tag("destino", "primario").register(registro);
+            FunctionCounter.builder("api.datasource.conexiones", lecturaEscritura, DataSourceLecturaEscritura::getConexionesReplica)
+                    .tag("destino", "replica").register(registro);
+            FunctionCounter.builder("api.datasource.replica.desvios", lecturaEscritura, DataSourceLecturaEscritura::getDesviosAlPrimario)
+                    .register(registro);
+        };
+    }
+
+    @Bean
+    public VerificadorReplica verificadorReplica(DataSourceLecturaEscritura lecturaEscritura) {
+        return new VerificadorReplica(lecturaEscritura);
+    }
+
+    /**
+     * Cliente del pedido en curso: el usuario autenticado o, si no lo hay, la IP de origen.
+     */
+    private static String clienteActual() {
+        var autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion != null && autenticacion.isAuthenticated() && !(autenticacion instanceof AnonymousAuthenticationToken)) {
+            return autenticacion.getName();
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos) {
+            return "ip:" + atributos.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    /**
+     * Verificación periódica de la réplica ('verificacion-ms').
+     */
+    public static class VerificadorReplica {
+
+        private final DataSourceLecturaEscritura lecturaEscritura;
+
+        VerificadorReplica(DataSourceLecturaEscritura lecturaEscritura) {
+            this.lecturaEscritura = lecturaEscritura;
+        }
+
+        @Scheduled(fixedDelayString = "${api.datasource.replica.verificacion-ms:5000}")
+        public void verificar() {
+            lecturaEscritura.verificarReplica();
+        }
+    }
+}
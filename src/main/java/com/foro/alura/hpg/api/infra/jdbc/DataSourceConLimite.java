@@ -0,0 +1,97 @@
+package com.foro.alura.hpg.api.infra.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource que limita cuántas conexiones pueden estar en uso al mismo tiempo.
+ * * Con hilos virtuales, miles de requests pueden llegar a pedir conexión a la vez: en lugar de
+ * que todos esperen dentro del pool (o agoten MySQL), esperan en un semáforo justo (FIFO)
+ * con un tiempo máximo, y si se vence se falla rápido con SQLTransientConnectionException.
+ * * El permiso se devuelve al cerrar la conexión (una sola vez, aunque close() se llame de nuevo).
+ */
+public class DataSourceConLimite extends DelegatingDataSource {
+
+    private final Semaphore permisos;
+    private final long esperaMaximaMs;
+
+    public DataSourceConLimite(DataSource destino, int maxConexiones, long esperaMaximaMs) {
+        super(destino);
+        this.permisos = new Semaphore(maxConexiones, true);
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return envolver(super.getConnection());
+        } catch (SQLException | RuntimeException exception) {
+            permisos.release();
+            throw exception;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return envolver(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException exception) {
+            permisos.release();
+            throw exception;
+        }
+    }
+
+    public int getPermisosDisponibles() {
+        return permisos.availablePermits();
+    }
+
+    public int getHilosEsperando() {
+        return permisos.getQueueLength();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No hay conexiones disponibles luego de esperar " + esperaMaximaMs + " ms");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", exception);
+        }
+    }
+
+    private Connection envolver(Connection conexion) {
+        var liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    if ("close".equals(metodo.getName()) && liberada.compareAndSet(false, true)) {
+                        try {
+                            return metodo.invoke(conexion, argumentos);
+                        } catch (InvocationTargetException exception) {
+                            throw exception.getCause();
+                        } finally {
+                            permisos.release();
+                        }
+                    }
+                    try {
+                        return metodo.invoke(conexion, argumentos);
+                    } catch (InvocationTargetException exception) {
+                        throw exception.getCause();
+                    }
+                });
+    }
+}
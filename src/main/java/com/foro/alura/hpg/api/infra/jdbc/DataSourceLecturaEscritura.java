@@ -0,0 +1,146 @@
+package com.foro.alura.hpg.api.infra.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * DataSource que envía las transacciones de solo lectura a la réplica y todo lo demás al primario.
+ * * La decisión se toma al pedir la conexión física, por eso debe usarse detrás de un
+ * LazyConnectionDataSourceProxy: así la transacción ya está marcada como readOnly cuando se elige el destino.
+ * * Lectura de las propias escrituras: cuando un cliente abre una transacción de escritura,
+ * sus lecturas van al primario durante 'ventanaLecturaPropiaMs' (la réplica puede tener retraso).
+ * * Si la réplica está marcada como caída, o no entrega una conexión, se lee del primario.
+ * La marca se actualiza con verificarReplica() (la llama una tarea periódica).
+ */
+public class DataSourceLecturaEscritura extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceLecturaEscritura.class);
+
+    public enum Destino {
+        PRIMARIO,
+        REPLICA
+    }
+
+    private final DataSource primario;
+    private final DataSource replica;
+    private final Supplier<String> clienteActual;
+    private final long ventanaLecturaPropiaNanos;
+    private final int timeoutVerificacionSegundos;
+
+    private final Map<String, Long> ultimasEscrituras = new ConcurrentHashMap<>();
+    private volatile boolean replicaSana = true;
+
+    private final LongAdder conexionesPrimario = new LongAdder();
+    private final LongAdder conexionesReplica = new LongAdder();
+    private final LongAdder desviosAlPrimario = new LongAdder();
+
+    /**
+     * @param clienteActual Identifica al cliente del pedido en curso (null si no se puede saber).
+     */
+    public DataSourceLecturaEscritura(DataSource primario, DataSource replica, Supplier<String> clienteActual,
+                                      long ventanaLecturaPropiaMs, int timeoutVerificacionSegundos) {
+        this.primario = primario;
+        this.replica = replica;
+        this.clienteActual = clienteActual;
+        this.ventanaLecturaPropiaNanos = ventanaLecturaPropiaMs * 1_000_000;
+        this.timeoutVerificacionSegundos = timeoutVerificacionSegundos;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (destinoActual() == Destino.REPLICA) {
+            try {
+                var conexion = replica.getConnection();
+                conexionesReplica.increment();
+                return conexion;
+            } catch (SQLException | RuntimeException exception) {
+                replicaSana = false;
+                desviosAlPrimario.increment();
+                log.warn("La réplica no entregó una conexión; se lee del primario hasta la próxima verificación", exception);
+            }
+        }
+        conexionesPrimario.increment();
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Las credenciales están configuradas en cada pool; se ignoran las recibidas.
+        return getConnection();
+    }
+
+    /**
+     * Elige el destino de la conexión que se está por abrir y registra las escrituras de cada cliente.
+     */
+    public Destino destinoActual() {
+        var cliente = clienteActual.get();
+        var ahora = System.nanoTime();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive() && cliente != null) {
+                ultimasEscrituras.put(cliente, ahora);
+            }
+            return Destino.PRIMARIO;
+        }
+
+        if (!replicaSana) {
+            desviosAlPrimario.increment();
+            return Destino.PRIMARIO;
+        }
+
+        if (cliente != null) {
+            var ultimaEscritura = ultimasEscrituras.get(cliente);
+            if (ultimaEscritura != null && ahora - ultimaEscritura < ventanaLecturaPropiaNanos) {
+                return Destino.PRIMARIO;
+            }
+        }
+        return Destino.REPLICA;
+    }
+
+    /**
+     * Comprueba que la réplica entregue una conexión válida y actualiza la marca de salud.
+     * * También descarta las ventanas de lectura propia que ya vencieron.
+     */
+    public boolean verificarReplica() {
+        var sana = false;
+        try (var conexion = replica.getConnection()) {
+            sana = conexion.isValid(timeoutVerificacionSegundos);
+        } catch (SQLException | RuntimeException exception) {
+            log.debug("Verificación de réplica fallida", exception);
+        }
+        if (sana != replicaSana) {
+            log.warn("La réplica de lectura pasó a estar {}", sana ? "disponible" : "caída");
+        }
+        replicaSana = sana;
+
+        var limite = System.nanoTime() - ventanaLecturaPropiaNanos;
+        ultimasEscrituras.values().removeIf(escritura -> escritura < limite);
+        return sana;
+    }
+
+    public boolean isReplicaSana() {
+        return replicaSana;
+    }
+
+    public long getConexionesPrimario() {
+        return conexionesPrimario.sum();
+    }
+
+    public long getConexionesReplica() {
+        return conexionesReplica.sum();
+    }
+
+    public long getDesviosAlPrimario() {
+        return desviosAlPrimario.sum();
+    }
+}
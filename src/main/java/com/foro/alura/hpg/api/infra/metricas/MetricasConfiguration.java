@@ -0,0 +1,132 @@
+package com.foro.alura.hpg.api.infra.metricas;
+
+import com.foro.alura.hpg.api.domain.topico.CacheJsonTopicos;
+import com.foro.alura.hpg.api.domain.topico.CacheTopicos;
+import com.foro.alura.hpg.api.domain.topico.CanalEventosTopicos;
+import com.foro.alura.hpg.api.domain.topico.EstadisticasTopicos;
+import com.foro.alura.hpg.api.domain.topico.IndiceBusquedaTopicos;
+import com.foro.alura.hpg.api.domain.topico.TotalesAproximadosTopicos;
+import com.foro.alura.hpg.api.infra.security.CachePrincipales;
+import com.foro.alura.hpg.api.infra.security.EjecutorVerificacionPasswords;
+import com.foro.alura.hpg.api.infra.security.RevocacionTokens;
+import com.foro.alura.hpg.api.infra.security.TokenService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Publica en Micrometer los contadores que ya llevan las caches y estructuras en memoria de la API.
+ * * Se consultan en /actuator/metrics (ej: /actuator/metrics/api.cache.aciertos?tag=cache:topicos).
+ */
+@Configuration
+public class MetricasConfiguration {
+
+    @Bean
+    public MeterBinder metricasTokenService(TokenService tokenService) {
+        return registro -> {
+            contador(registro, "api.cache.aciertos", "tokens", tokenService, TokenService::getAciertosCache);
+            contador(registro, "api.cache.fallos", "tokens", tokenService, TokenService::getFallosCache);
+            Gauge.builder("api.cache.tamanio", tokenService, TokenService::getTamanioCache)
+                    .tag("cache", "tokens").register(registro);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasCachePrincipales(CachePrincipales cache) {
+        return registro -> {
+            contador(registro, "api.cache.aciertos", "principales", cache, CachePrincipales::getAciertos);
+            contador(registro, "api.cache.fallos", "principales", cache, CachePrincipales::getFallos);
+            Gauge.builder("api.cache.tamanio", cache, CachePrincipales::getTamanio)
+                    .tag("cache", "principales").register(registro);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasCacheTopicos(CacheTopicos cache) {
+        return registro -> {
+            contador(registro, "api.cache.aciertos", "topicos", cache, CacheTopicos::getAciertos);
+            contador(registro, "api.cache.fallos", "topicos", cache, CacheTopicos::getFallos);
+            contador(registro, "api.cache.desalojos", "topicos", cache, CacheTopicos::getDesalojos);
+            contador(registro, "api.cache.cargas", "topicos", cache, CacheTopicos::getCargas);
+            FunctionCounter.builder("api.cache.tiempo.carga", cache, c -> c.getTiempoCargaNanos() / 1e9)
+                    .tag("cache", "topicos").baseUnit("seconds").register(registro);
+            Gauge.builder("api.cache.tasa.aciertos", cache, CacheTopicos::getTasaAciertos)
+                    .tag("cache", "topicos").register(registro);
+            Gauge.builder("api.cache.tamanio", cache, CacheTopicos::getTamanio)
+                    .tag("cache", "topicos").register(registro);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasCacheJson(CacheJsonTopicos cache) {
+        return registro -> {
+            contador(registro, "api.cache.aciertos", "json", cache, CacheJsonTopicos::getAciertos);
+            contador(registro, "api.cache.fallos", "json", cache, CacheJsonTopicos::getFallos);
+            Gauge.builder("api.cache.tamanio", cache, CacheJsonTopicos::getTamanio).tag("cache", "json").register(registro);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasTotalesAproximados(TotalesAproximadosTopicos totales) {
+        return registro -> Gauge.builder("api.cache.tamanio", totales, TotalesAproximadosTopicos::getTamanio)
+                .tag("cache", "totales").register(registro);
+    }
+
+    @Bean
+    public MeterBinder metricasBusqueda(IndiceBusquedaTopicos indice) {
+        return registro -> {
+            Gauge.builder("api.busqueda.documentos", indice, IndiceBusquedaTopicos::getCantidadDocumentos).register(registro);
+            Gauge.builder("api.busqueda.terminos", indice, IndiceBusquedaTopicos::getCantidadTerminos).register(registro);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasEstadisticas(EstadisticasTopicos estadisticas) {
+        return registro -> Gauge.builder("api.estadisticas.desvio", estadisticas, EstadisticasTopicos::getUltimoDesvio)
+                .register(registro);
+    }
+
+    @Bean
+    public MeterBinder metricasStream(CanalEventosTopicos canal) {
+        return registro -> {
+            Gauge.builder("api.stream.suscriptores", canal, CanalEventosTopicos::getSuscriptores).register(registro);
+            FunctionCounter.builder("api.stream.eventos.publicados", canal, CanalEventosTopicos::getEventosPublicados)
+                    .register(registro);
+            FunctionCounter.builder("api.stream.eventos.descartados", canal, CanalEventosTopicos::getEventosDescartados)
+                    .register(registro);
+            FunctionCounter.builder("api.stream.desconexiones.lentitud", canal, CanalEventosTopicos::getDesconexionesPorLentitud)
+                    .register(registro);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasRevocacion(RevocacionTokens revocacion) {
+        return registro -> {
+            Gauge.builder("api.security.revocados", revocacion, RevocacionTokens::getTamanio).register(registro);
+            FunctionCounter.builder("api.security.revocacion.consultas", revocacion, RevocacionTokens::getDescartadosPorBloom)
+                    .tag("resultado", "bloom").register(registro);
+            FunctionCounter.builder("api.security.revocacion.consultas", revocacion, RevocacionTokens::getFalsosPositivos)
+                    .tag("resultado", "falso-positivo").register(registro);
+            FunctionCounter.builder("api.security.revocacion.consultas", revocacion, RevocacionTokens::getRechazados)
+                    .tag("resultado", "revocado").register(registro);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasLogin(EjecutorVerificacionPasswords ejecutor) {
+        return registro -> {
+            Gauge.builder("api.login.cola", ejecutor, EjecutorVerificacionPasswords::getTareasEnCola).register(registro);
+            Gauge.builder("api.login.hilos.activos", ejecutor, EjecutorVerificacionPasswords::getHilosActivos).register(registro);
+        };
+    }
+
+    private static <T> void contador(MeterRegistry registro, String nombre, String cache, T objeto,
+                                     ToLongFunction<T> valor) {
+        FunctionCounter.builder(nombre, objeto, o -> valor.applyAsLong(o)).tag("cache", cache).register(registro);
+    }
+}
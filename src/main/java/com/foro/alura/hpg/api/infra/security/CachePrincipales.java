@@ -0,0 +1,101 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache en memoria de los usuarios autenticados, indexada por email.
+ * * Permite que el SecurityFilter no consulte la tabla 'usuarios' en cada request.
+ * * Las entradas viven como máximo 'ttl-segundos' y la cache nunca supera 'max-entradas'.
+ * * Las vencidas se descartan al consultarlas y en una purga periódica; al llenarse se libera
+ * un lugar cualquiera, en O(1), para no recorrer la cache en el hilo del request.
+ * * Cualquier alta o modificación de un Usuario debe llamar a invalidar(email).
+ */
+@Component
+public class CachePrincipales {
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    public CachePrincipales(@Value("${api.security.principales.cache.ttl-segundos:60}") long ttlSegundos,
+                            @Value("${api.security.principales.cache.max-entradas:10000}") int maxEntradas) {
+        this.ttlNanos = Duration.ofSeconds(ttlSegundos).toNanos();
+        this.maxEntradas = maxEntradas;
+    }
+
+    /**
+     * Devuelve el usuario cacheado para el email, o null si no está o ya venció.
+     */
+    public UserDetails obtener(String email) {
+        var entrada = entradas.get(email);
+
+        if (entrada == null) {
+            fallos.increment();
+            return null;
+        }
+
+        if (System.nanoTime() - entrada.cargadoEn() > ttlNanos) {
+            entradas.remove(email, entrada);
+            fallos.increment();
+            return null;
+        }
+
+        aciertos.increment();
+        return entrada.usuario();
+    }
+
+    public void guardar(String email, UserDetails usuario) {
+        if (maxEntradas <= 0 || usuario == null) {
+            return;
+        }
+
+        // Llena: liberamos un lugar cualquiera para no crecer sin límite (los vencidos los quita la purga periódica).
+        if (entradas.size() >= maxEntradas) {
+            var iterador = entradas.keySet().iterator();
+            if (iterador.hasNext()) {
+                iterador.next();
+                iterador.remove();
+            }
+        }
+
+        entradas.put(email, new Entrada(usuario, System.nanoTime()));
+    }
+
+    public void invalidar(String email) {
+        if (email != null) {
+            entradas.remove(email);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.security.principales.cache.purga-ms:60000}")
+    public void purgarVencidos() {
+        var ahora = System.nanoTime();
+        entradas.values().removeIf(entrada -> ahora - entrada.cargadoEn() > ttlNanos);
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public int getTamanio() {
+        return entradas.size();
+    }
+
+    private record Entrada(UserDetails usuario, long cargadoEn) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache acotada de tokens JWT que ya fueron verificados.
+ * * La clave es el hash SHA-256 del token (no guardamos el token en claro) y el valor
+ * contiene el subject, el identificador (jti) y la fecha de expiración del token.
+ * * Un token repetido se resuelve sin volver a calcular la firma HMAC ni decodificar el JSON.
+ * * Las entradas expiradas se descartan al consultarlas y en la purga periódica del TokenService.
+ * * Al llenarse se libera un lugar cualquiera, en O(1): la purga nunca corre en el hilo del request.
+ */
+public class CacheTokensVerificados {
+
+    private final Map<String, DatosTokenVerificado> entradas = new ConcurrentHashMap<>();
+    private final int maxEntradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    public CacheTokensVerificados(int maxEntradas) {
+        this.maxEntradas = maxEntradas;
+    }
+
+    /**
+     * Devuelve los datos del token si está en cache y todavía no expiró, o null en caso contrario.
+     */
+    public DatosTokenVerificado obtener(String tokenJWT) {
+        var clave = hash(tokenJWT);
+        var entrada = entradas.get(clave);
+
+        if (entrada == null) {
+            fallos.increment();
+            return null;
+        }
+
+        if (entrada.expiraEn().isBefore(Instant.now())) {
+            // El token expiró: lo sacamos y dejamos que el verificador informe el error.
+            entradas.remove(clave, entrada);
+            fallos.increment();
+            return null;
+        }
+
+        aciertos.increment();
+        return entrada;
+    }
+
+    public void guardar(String tokenJWT, DatosTokenVerificado token) {
+        if (maxEntradas <= 0 || token.expiraEn() == null) {
+            return;
+        }
+
+        // Llena: liberamos un lugar cualquiera para no crecer sin límite (los expirados los quita la purga periódica).
+        if (entradas.size() >= maxEntradas) {
+            var iterador = entradas.keySet().iterator();
+            if (iterador.hasNext()) {
+                iterador.next();
+                iterador.remove();
+            }
+        }
+
+        entradas.put(hash(tokenJWT), token);
+    }
+
+    public void purgarExpirados() {
+        var ahora = Instant.now();
+        entradas.values().removeIf(entrada -> entrada.expiraEn().isBefore(ahora));
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public int getTamanio() {
+        return entradas.size();
+    }
+
+    private static String hash(String tokenJWT) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(tokenJWT.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM", exception);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record DatosRevocacionToken(
+        @NotBlank
+        String token
+) {
+}
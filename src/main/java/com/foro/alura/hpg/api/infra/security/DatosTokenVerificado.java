@@ -0,0 +1,10 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import java.time.Instant;
+
+/**
+ * Datos de un token JWT con firma válida y vigente.
+ * * 'jti' es el identificador único del token (null en tokens emitidos antes de que se agregara).
+ */
+public record DatosTokenVerificado(String subject, String jti, Instant expiraEn) {
+}
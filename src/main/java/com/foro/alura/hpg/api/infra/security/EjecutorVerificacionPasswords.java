@@ -0,0 +1,64 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import com.foro.alura.hpg.api.infra.exceptions.LimiteDeSolicitudesException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool de hilos exclusivo para la verificación de contraseñas (BCrypt) del login.
+ * * BCrypt es costoso a propósito: si corre en los hilos de Tomcat, una ráfaga de logins
+ * deja sin hilos al resto de la API. Aquí tiene hilos propios y una cola acotada;
+ * cuando la cola se llena el login se rechaza de inmediato con 429 y Retry-After.
+ */
+@Component
+public class EjecutorVerificacionPasswords {
+
+    private final ThreadPoolExecutor ejecutor;
+    private final long reintentarEnSegundos;
+
+    public EjecutorVerificacionPasswords(@Value("${api.security.login.hilos:0}") int hilos,
+                                         @Value("${api.security.login.cola:50}") int tamanioCola,
+                                         @Value("${api.security.login.reintentar-en-segundos:1}") long reintentarEnSegundos) {
+        var cantidadHilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        var contador = new AtomicInteger();
+        this.ejecutor = new ThreadPoolExecutor(cantidadHilos, cantidadHilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanioCola),
+                tarea -> {
+                    var hilo = new Thread(tarea, "login-bcrypt-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public <T> CompletableFuture<T> ejecutar(Supplier<T> tarea) {
+        try {
+            return CompletableFuture.supplyAsync(tarea, ejecutor);
+        } catch (RejectedExecutionException exception) {
+            throw new LimiteDeSolicitudesException("El servicio de login está saturado, intente nuevamente", reintentarEnSegundos);
+        }
+    }
+
+    public int getTareasEnCola() {
+        return ejecutor.getQueue().size();
+    }
+
+    public int getHilosActivos() {
+        return ejecutor.getActiveCount();
+    }
+
+    @PreDestroy
+    void cerrar() {
+        ejecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,106 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import com.foro.alura.hpg.api.infra.exceptions.LimiteDeSolicitudesException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Límite de intentos de login por IP y por email, con un token bucket para cada clave.
+ * * Los buckets viven en mapas acotados a 'max-claves', ordenados por último uso. Al llenarse
+ * solo se descarta el menos usado, en O(1), y únicamente si ya está lleno (equivale a uno nuevo):
+ * un bucket a medio vaciar nunca se descarta, así que inventar claves no le devuelve los intentos
+ * a la víctima. Si el menos usado todavía no está lleno, la clave nueva se rechaza con 429 hasta
+ * que se libere un lugar.
+ * * Cada 'purga-ms' se descartan todos los buckets llenos, fuera del hilo del request.
+ */
+@Component
+public class LimitadorLogin {
+
+    private final Buckets porIp;
+    private final Buckets porEmail;
+
+    public LimitadorLogin(@Value("${api.security.login.limite.ip.capacidad:20}") int capacidadIp,
+                          @Value("${api.security.login.limite.ip.por-minuto:10}") int recargaIpPorMinuto,
+                          @Value("${api.security.login.limite.email.capacidad:5}") int capacidadEmail,
+                          @Value("${api.security.login.limite.email.por-minuto:5}") int recargaEmailPorMinuto,
+                          @Value("${api.security.login.limite.max-claves:100000}") int maxClaves) {
+        this.porIp = new Buckets(capacidadIp, recargaIpPorMinuto / 60d, maxClaves);
+        this.porEmail = new Buckets(capacidadEmail, recargaEmailPorMinuto / 60d, maxClaves);
+    }
+
+    /**
+     * Consume un intento para la IP y para el email; si alguno no tiene fichas, rechaza con 429.
+     */
+    public void verificar(String ip, String email) {
+        var esperaIp = porIp.obtener(ip).intentarConsumir();
+        if (esperaIp > 0) {
+            throw new LimiteDeSolicitudesException("Demasiados intentos de login desde esta IP", segundos(esperaIp));
+        }
+
+        if (email != null) {
+            var clave = email.trim().toLowerCase(Locale.ROOT);
+            var esperaEmail = porEmail.obtener(clave).intentarConsumir();
+            if (esperaEmail > 0) {
+                throw new LimiteDeSolicitudesException("Demasiados intentos de login para este usuario", segundos(esperaEmail));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.security.login.limite.purga-ms:60000}")
+    public void purgarLlenos() {
+        porIp.purgarLlenos();
+        porEmail.purgarLlenos();
+    }
+
+    private static long segundos(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos) + 1);
+    }
+
+    /**
+     * Buckets de un tipo de clave, en un LinkedHashMap por orden de acceso (el primero es el menos usado).
+     */
+    private static class Buckets {
+
+        private final LinkedHashMap<String, TokenBucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+        private final int capacidad;
+        private final double recargaPorSegundo;
+        private final int maxClaves;
+
+        Buckets(int capacidad, double recargaPorSegundo, int maxClaves) {
+            this.capacidad = capacidad;
+            this.recargaPorSegundo = recargaPorSegundo;
+            this.maxClaves = maxClaves;
+        }
+
+        synchronized TokenBucket obtener(String clave) {
+            var bucket = buckets.get(clave);
+            if (bucket != null) {
+                return bucket;
+            }
+
+            if (buckets.size() >= maxClaves) {
+                var iterador = buckets.values().iterator();
+                var menosUsado = iterador.hasNext() ? iterador.next() : null;
+                var espera = menosUsado == null ? 0 : menosUsado.nanosParaLlenarse();
+                if (espera > 0) {
+                    throw new LimiteDeSolicitudesException("Demasiados intentos de login, reintente más tarde", segundos(espera));
+                }
+                if (menosUsado != null) {
+                    iterador.remove();
+                }
+            }
+            bucket = new TokenBucket(capacidad, recargaPorSegundo);
+            buckets.put(clave, bucket);
+            return bucket;
+        }
+
+        synchronized void purgarLlenos() {
+            buckets.values().removeIf(TokenBucket::estaLleno);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lista de tokens JWT revocados (por jti) antes de su expiración.
+ * * Cada request autenticado consulta primero un filtro de Bloom: si el jti no está, el token seguro
+ * no fue revocado y no se hace ninguna otra búsqueda (ni en memoria ni en la base).
+ * Solo ante un "puede que esté" se mira el mapa de revocados en memoria, que es la fuente exacta.
+ * * Las revocaciones se guardan en la tabla 'tokens_revocados'. Al arrancar se reconstruye la lista
+ * desde la tabla y cada 'sincronizacion-ms' se leen las revocaciones nuevas (hechas en otras instancias).
+ * * Cada 'purga-ms' se descartan los tokens que igual ya habrían expirado (en memoria y en la tabla)
+ * y se reconstruye el filtro de Bloom, que no permite quitar elementos.
+ */
+@Component
+public class RevocacionTokens {
+
+    private static final String SQL_INSERTAR =
+            "insert into tokens_revocados (jti, expira_en, fecha_de_revocacion) values (?, ?, ?)";
+    private static final String SQL_VIGENTES_DESDE =
+            "select jti, expira_en, fecha_de_revocacion from tokens_revocados where expira_en > ? and fecha_de_revocacion >= ?";
+    // Las revocaciones llevan la hora de la instancia que las hizo: se relee un margen hacia atrás
+    // para no perder las de una instancia con el reloj un poco atrasado (volver a agregarlas no cambia nada).
+    private static final Duration MARGEN_SINCRONIZACION = Duration.ofMinutes(1);
+    private static final String SQL_BORRAR_EXPIRADOS = "delete from tokens_revocados where expira_en <= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Instant> revocados = new ConcurrentHashMap<>();
+    private final int cantidadBits;
+    private final int cantidadFunciones;
+    private volatile AtomicLongArray bits;
+
+    // Fecha de revocación más reciente leída de la tabla (la próxima sincronización lee desde ahí).
+    private volatile Instant ultimaSincronizacion = Instant.EPOCH;
+
+    private final LongAdder descartadosPorBloom = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
+
+    public RevocacionTokens(@Value("${api.security.revocacion.bloom.elementos-esperados:100000}") int elementosEsperados,
+                            @Value("${api.security.revocacion.bloom.falsos-positivos:0.001}") double probabilidadFalsoPositivo) {
+        // Mismas fórmulas que FiltroBloomTopicos: m = -n ln(p) / ln(2)^2  y  k = m/n ln(2)
+        var m = (long) Math.ceil(-elementosEsperados * Math.log(probabilidadFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.cantidadBits = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+        this.cantidadFunciones = Math.max(1, (int) Math.round((double) cantidadBits / elementosEsperados * Math.log(2)));
+        this.bits = new AtomicLongArray((cantidadBits + 63) / 64);
+    }
+
+    /**
+     * Reconstruye la lista desde la tabla antes de que la aplicación empiece a atender requests
+     * (Spring Boot crea el JdbcTemplate recién después de las migraciones de Flyway).
+     */
+    @PostConstruct
+    void inicializar() {
+        sincronizar();
+    }
+
+    /**
+     * Revoca el token hasta su expiración. Es idempotente: revocar dos veces el mismo jti no falla.
+     */
+    public void revocar(String jti, Instant expiraEn) {
+        try {
+            var ahora = Instant.now();
+            jdbcTemplate.update(SQL_INSERTAR, jti, Timestamp.from(expiraEn), Timestamp.from(ahora));
+        } catch (DuplicateKeyException exception) {
+            // Ya estaba revocado (por ejemplo, un segundo logout con el mismo token).
+        }
+        agregar(jti, expiraEn);
+    }
+
+    public boolean estaRevocado(String jti) {
+        if (jti == null) {
+            // Tokens emitidos antes de agregar el jti: no se pueden revocar y vencen solos.
+            return false;
+        }
+        if (!puedeContener(bits, jti)) {
+            descartadosPorBloom.increment();
+            return false;
+        }
+
+        var expiraEn = revocados.get(jti);
+        if (expiraEn == null || expiraEn.isBefore(Instant.now())) {
+            falsosPositivos.increment();
+            return false;
+        }
+        rechazados.increment();
+        return true;
+    }
+
+    /**
+     * Agrega las revocaciones hechas desde la última lectura (por esta u otras instancias).
+     */
+    @Scheduled(initialDelayString = "${api.security.revocacion.sincronizacion-ms:30000}",
+            fixedDelayString = "${api.security.revocacion.sincronizacion-ms:30000}")
+    public void sincronizar() {
+        var desde = ultimaSincronizacion.minus(MARGEN_SINCRONIZACION);
+        jdbcTemplate.query(SQL_VIGENTES_DESDE, fila -> {
+            var revocadoEn = fila.getTimestamp("fecha_de_revocacion").toInstant();
+            agregar(fila.getString("jti"), fila.getTimestamp("expira_en").toInstant());
+            if (revocadoEn.isAfter(ultimaSincronizacion)) {
+                ultimaSincronizacion = revocadoEn;
+            }
+        }, Timestamp.from(Instant.now()), Timestamp.from(desde));
+    }
+
+    /**
+     * Descarta los revocados que ya expiraron y reconstruye el filtro de Bloom con los que quedan.
+     * @return Cantidad de revocados descartados de la memoria.
+     */
+    @Scheduled(fixedDelayString = "${api.security.revocacion.purga-ms:600000}")
+    public int purgar() {
+        var ahora = Instant.now();
+        var antes = revocados.size();
+        revocados.values().removeIf(expiraEn -> !expiraEn.isAfter(ahora));
+        jdbcTemplate.update(SQL_BORRAR_EXPIRADOS, Timestamp.from(ahora));
+
+        var nuevos = new AtomicLongArray(bits.length());
+        revocados.keySet().forEach(jti -> marcar(nuevos, jti));
+        bits = nuevos;
+        // Una revocación que llegó durante la reconstrucción pudo marcarse solo en el filtro anterior.
+        revocados.keySet().forEach(jti -> marcar(bits, jti));
+        return Math.max(0, antes - revocados.size());
+    }
+
+    public int getTamanio() {
+        return revocados.size();
+    }
+
+    public long getDescartadosPorBloom() {
+        return descartadosPorBloom.sum();
+    }
+
+    public long getFalsosPositivos() {
+        return falsosPositivos.sum();
+    }
+
+    public long getRechazados() {
+        return rechazados.sum();
+    }
+
+    private void agregar(String jti, Instant expiraEn) {
+        if (!expiraEn.isAfter(Instant.now())) {
+            return;
+        }
+        // Primero el mapa y después el filtro: si el filtro dice "puede que esté", el mapa ya lo tiene.
+        revocados.put(jti, expiraEn);
+        marcar(bits, jti);
+    }
+
+    private void marcar(AtomicLongArray filtro, String jti) {
+        for (var posicion : posiciones(jti)) {
+            var mascara = 1L << (posicion & 63);
+            filtro.getAndUpdate(posicion >>> 6, valor -> valor | mascara);
+        }
+    }
+
+    private boolean puedeContener(AtomicLongArray filtro, String jti) {
+        for (var posicion : posiciones(jti)) {
+            if ((filtro.get(posicion >>> 6) & (1L << (posicion & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Doble hashing (h1 + i * h2) con dos hashes de 64 bits (FNV-1a y una variante con otra semilla)
+     * sobre los bytes del jti; un UUID aleatorio ya está bien distribuido.
+     */
+    private int[] posiciones(String jti) {
+        var h1 = 0xcbf29ce484222325L;
+        var h2 = 0x84222325cbf29ce4L;
+        for (var b : jti.getBytes(StandardCharsets.UTF_8)) {
+            h1 = (h1 ^ (b & 0xFF)) * 0x100000001b3L;
+            h2 = (h2 ^ (b & 0xFF)) * 0x9E3779B97F4A7C15L;
+        }
+
+        var posiciones = new int[cantidadFunciones];
+        for (int i = 0; i < cantidadFunciones; i++) {
+            posiciones[i] = (int) Math.floorMod(h1 + i * h2, (long) cantidadBits);
+        }
+        return posiciones;
+    }
+}
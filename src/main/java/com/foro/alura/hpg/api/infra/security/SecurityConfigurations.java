@@ -26,6 +26,8 @@ public class SecurityConfigurations {
 
         return httpSecurity.csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // Sin sesión no hay nada que cerrar: POST /logout lo atiende LogoutController (revoca el token).
+                .logout(logout -> logout.disable())
                 .authorizeHttpRequests(request -> {
                     request.requestMatchers(HttpMethod.POST, "/login").permitAll();
                     request.anyRequest().authenticated();
@@ -1,10 +1,15 @@
 package com.foro.alura.hpg.api.infra.security;
 
 import com.foro.alura.hpg.api.domain.usuario.IUsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -12,16 +17,50 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityFilter.class);
+
     @Autowired
     private IUsuarioRepository iUsuarioRepository;
 
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private CachePrincipales cachePrincipales;
+
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer timerVerificacionToken;
+    private Timer timerBusquedaUsuarioCache;
+    private Timer timerBusquedaUsuarioBase;
+
+    @PostConstruct
+    void registrarMetricas() {
+        timerVerificacionToken = Timer.builder("api.security.token.verificacion")
+                .description("Tiempo de verificación del token JWT (incluye la cache de tokens)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        timerBusquedaUsuarioCache = timerBusquedaUsuario("cache");
+        timerBusquedaUsuarioBase = timerBusquedaUsuario("base");
+    }
+
+    private Timer timerBusquedaUsuario(String origen) {
+        return Timer.builder("api.security.usuario.busqueda")
+                .description("Tiempo de búsqueda del usuario autenticado")
+                .tag("origen", origen)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
@@ -29,15 +68,35 @@ public class SecurityFilter extends OncePerRequestFilter {
         //System.out.println("TokenJWT: " + tokenJDT);
 
         if (tokenJDT != null) {
-            var subject = tokenService.getSubject(tokenJDT);
+            var token = timerVerificacionToken.record(() -> tokenService.verificar(tokenJDT));
+            var subject = token.subject();
             //System.out.println("Usuario: " + subject);
 
-            var usuario = iUsuarioRepository.findByEmail(subject);
-
-            var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            System.out.println("Usuario logueado!");
+            // Un token revocado (logout) no autentica: el request sigue como anónimo y Spring Security lo rechaza.
+            // Para los tokens no revocados esto es solo una consulta al filtro de Bloom, sin ir a la base.
+            if (revocacionTokens.estaRevocado(token.jti())) {
+                log.debug("Token revocado de: {}", subject);
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            // Primero buscamos en la cache; solo vamos a la base de datos si no está o venció.
+            var inicio = System.nanoTime();
+            var usuario = cachePrincipales.obtener(subject);
+            if (usuario != null) {
+                timerBusquedaUsuarioCache.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            } else {
+                usuario = iUsuarioRepository.findByEmail(subject);
+                cachePrincipales.guardar(subject, usuario);
+                timerBusquedaUsuarioBase.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+
+            if (usuario != null) {
+                var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                log.debug("Usuario logueado: {}", subject);
+            }
 
         }
 
@@ -45,7 +104,8 @@ public class SecurityFilter extends OncePerRequestFilter {
 
     }
 
-    private String recuperarToken(HttpServletRequest request) {
+    // Visibilidad de paquete para poder medirlo en los microbenchmarks (src/jmh/java).
+    String recuperarToken(HttpServletRequest request) {
         var authorizationHeader = request.getHeader("Authorization");
         if (authorizationHeader != null) {
             return authorizationHeader.replace("Bearer ", "");
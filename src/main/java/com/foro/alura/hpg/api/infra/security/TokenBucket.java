@@ -0,0 +1,59 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket sin locks: el estado (fichas disponibles + momento de la última recarga)
+ * es inmutable y se reemplaza con compareAndSet.
+ * * Cada intento consume una ficha; las fichas se recargan de forma continua a 'fichasPorSegundo'
+ * hasta llegar a 'capacidad'.
+ */
+public class TokenBucket {
+
+    private final double capacidad;
+    private final double fichasPorNano;
+    private final AtomicReference<Estado> estado;
+
+    public TokenBucket(double capacidad, double fichasPorSegundo) {
+        this.capacidad = capacidad;
+        this.fichasPorNano = fichasPorSegundo / 1_000_000_000d;
+        this.estado = new AtomicReference<>(new Estado(capacidad, System.nanoTime()));
+    }
+
+    /**
+     * Intenta consumir una ficha. Devuelve 0 si pudo, o los nanosegundos que faltan para la próxima ficha.
+     */
+    public long intentarConsumir() {
+        while (true) {
+            var actual = estado.get();
+            var ahora = System.nanoTime();
+            var fichas = Math.min(capacidad, actual.fichas() + (ahora - actual.recargadoEn()) * fichasPorNano);
+
+            if (fichas < 1) {
+                return (long) Math.ceil((1 - fichas) / fichasPorNano);
+            }
+            if (estado.compareAndSet(actual, new Estado(fichas - 1, ahora))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Un bucket lleno equivale a uno nuevo: se puede descartar sin cambiar el comportamiento.
+     */
+    public boolean estaLleno() {
+        return nanosParaLlenarse() == 0;
+    }
+
+    /**
+     * Nanosegundos que faltan para que el bucket vuelva a estar lleno (0 si ya lo está).
+     */
+    public long nanosParaLlenarse() {
+        var actual = estado.get();
+        var fichas = actual.fichas() + (System.nanoTime() - actual.recargadoEn()) * fichasPorNano;
+        return fichas >= capacidad ? 0 : (long) Math.ceil((capacidad - fichas) / fichasPorNano);
+    }
+
+    private record Estado(double fichas, long recargadoEn) {
+    }
+}
@@ -1,30 +1,56 @@
 package com.foro.alura.hpg.api.infra.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class TokenService {
 
+    private static final String ISSUER = "API FORO HUB";
+
     @Value("${api.security.token.secret}")
     private String secret;
 
+    @Value("${api.security.token.cache.max-entradas:10000}")
+    private int maxEntradasCache;
+
+    /**
+     * El algoritmo HMAC y el verificador son inmutables y thread-safe,
+     * por eso se construyen una sola vez y se reutilizan en cada request.
+     */
+    private Algorithm algoritmo;
+    private JWTVerifier verificador;
+
+    private CacheTokensVerificados cacheTokens;
+
+    @PostConstruct
+    void inicializar() {
+        this.algoritmo = Algorithm.HMAC256(secret);
+        this.verificador = JWT.require(algoritmo)
+                .withIssuer(ISSUER)
+                .build();
+        this.cacheTokens = new CacheTokensVerificados(maxEntradasCache);
+    }
+
     public String generarToken(Usuario usuario) {
         try {
-            var algoritmo = Algorithm.HMAC256(secret);
             return JWT.create()
-                    .withIssuer("API FORO HUB")
+                    .withIssuer(ISSUER)
                     .withSubject(usuario.getEmail())
+                    .withJWTId(UUID.randomUUID().toString()) // jti: identifica al token para poder revocarlo.
                     .withExpiresAt(fechaExpiracion())
                     .sign(algoritmo);
         } catch (JWTCreationException exception){
@@ -39,16 +65,49 @@ public class TokenService {
     }
 
     public String getSubject(String tokenJWT) {
+        return verificar(tokenJWT).subject();
+    }
+
+    /**
+     * Verifica firma y expiración del token y devuelve su subject, su jti y su expiración.
+     * * No consulta la revocación: eso lo hace el SecurityFilter con RevocacionTokens.
+     */
+    public DatosTokenVerificado verificar(String tokenJWT) {
+        // Si el token ya fue verificado y no expiró, evitamos recalcular la firma y decodificar el JSON.
+        var verificado = cacheTokens.obtener(tokenJWT);
+        if (verificado != null) {
+            return verificado;
+        }
+
         try {
-            var algoritmo = Algorithm.HMAC256(secret);
-            return JWT.require(algoritmo)
-                    .withIssuer("API FORO HUB")
-                    .build()
-                    .verify(tokenJWT)
-                    .getSubject();
+            var decodificado = verificador.verify(tokenJWT);
+            verificado = new DatosTokenVerificado(decodificado.getSubject(), decodificado.getId(),
+                    decodificado.getExpiresAtAsInstant());
+            cacheTokens.guardar(tokenJWT, verificado);
+            return verificado;
 
         } catch (JWTVerificationException exception){
             throw new RuntimeException("Token JWT invalido o se encuentra expirado!");
         }
     }
+
+    /**
+     * Quita de la cache los tokens expirados, fuera del camino de los requests.
+     */
+    @Scheduled(fixedDelayString = "${api.security.token.cache.purga-ms:60000}")
+    public void purgarCache() {
+        cacheTokens.purgarExpirados();
+    }
+
+    public long getAciertosCache() {
+        return cacheTokens.getAciertos();
+    }
+
+    public long getFallosCache() {
+        return cacheTokens.getFallos();
+    }
+
+    public int getTamanioCache() {
+        return cacheTokens.getTamanio();
+    }
 }
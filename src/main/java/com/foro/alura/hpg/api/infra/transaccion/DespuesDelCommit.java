@@ -0,0 +1,29 @@
+package com.foro.alura.hpg.api.infra.transaccion;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ejecuta una acción recién cuando la transacción actual se confirma (commit).
+ * * Lo usan las estructuras en memoria (índices, caches) que replican datos de la base:
+ * si la transacción hace rollback, la acción nunca se ejecuta y la memoria no queda desfasada.
+ * * Si no hay transacción activa, la acción se ejecuta inmediatamente.
+ */
+public final class DespuesDelCommit {
+
+    private DespuesDelCommit() {
+    }
+
+    public static void ejecutar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.HexFormat;
+
+/**
+ * Completa la columna 'hash_contenido' de los tópicos existentes.
+ * * Se hace en Java (y no con SHA2() en SQL) para usar exactamente el mismo cálculo que la aplicación
+ * en el momento de esta versión: SHA-256 en hexadecimal de titulo + '\0' + mensaje (UTF-8).
+ * * El cálculo está copiado acá a propósito: una migración no debe depender de clases del dominio,
+ * que pueden cambiar o moverse después de aplicada.
+ * * Si ya existían tópicos duplicados, solo el primero (menor id) recibe el hash;
+ * el resto queda en NULL para que el índice único de la V8 pueda crearse.
+ */
+public class V7__backfill_topicos_hash_contenido extends BaseJavaMigration {
+
+    private static final int TAMANIO_LOTE = 500;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        var conexion = context.getConnection();
+        var vistos = new HashSet<String>();
+
+        try (var consulta = conexion.prepareStatement("select id, titulo, mensaje from topicos order by id");
+             var actualizacion = conexion.prepareStatement("update topicos set hash_contenido = ? where id = ?")) {
+
+            consulta.setFetchSize(TAMANIO_LOTE);
+            try (var filas = consulta.executeQuery()) {
+                var pendientes = 0;
+                while (filas.next()) {
+                    var hash = calcularHash(filas.getString("titulo"), filas.getString("mensaje"));
+                    if (!vistos.add(hash)) {
+                        continue;
+                    }
+
+                    actualizacion.setString(1, hash);
+                    actualizacion.setLong(2, filas.getLong("id"));
+                    actualizacion.addBatch();
+
+                    if (++pendientes == TAMANIO_LOTE) {
+                        actualizacion.executeBatch();
+                        pendientes = 0;
+                    }
+                }
+                if (pendientes > 0) {
+                    actualizacion.executeBatch();
+                }
+            }
+        }
+    }
+
+    private static String calcularHash(String titulo, String mensaje) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            var contenido = titulo + '\u0000' + mensaje;
+            return HexFormat.of().formatHex(digest.digest(contenido.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM", exception);
+        }
+    }
+}
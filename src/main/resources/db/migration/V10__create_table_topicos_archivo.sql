@@ -0,0 +1,29 @@
+-- Tabla fría: tópicos eliminados (activo = 0), cerrados o resueltos que superaron la antigüedad
+-- configurada. Los mueve ArchivadorTopicos en lotes; conservan el mismo id que tenían en 'topicos'.
+create table topicos_archivo (
+    id bigint not null,
+    titulo varchar(100) not null,
+    mensaje varchar(300) not null,
+    fecha_de_creacion datetime not null,
+    fecha_de_actualizacion datetime not null,
+    fecha_de_archivo datetime not null,
+    status varchar(100) not null,
+    curso varchar(100) not null,
+    curso_normalizado varchar(100) not null,
+    hash_contenido char(64),
+    usuario_id bigint not null,
+    activo tinyint,
+    version bigint not null default 0,
+    primary key (id),
+    constraint fk_topicos_archivo_usuario_id foreign key (usuario_id) references usuarios(id)
+);
+
+create index idx_topicos_archivo_fecha_de_creacion_id on topicos_archivo (fecha_de_creacion, id);
+
+-- Vista de solo lectura con los tópicos de ambas tablas, para los listados que piden incluir el archivo.
+create view topicos_historico as
+    select id, titulo, mensaje, fecha_de_creacion, fecha_de_actualizacion, status, curso, usuario_id, activo, version
+    from topicos
+    union all
+    select id, titulo, mensaje, fecha_de_creacion, fecha_de_actualizacion, status, curso, usuario_id, activo, version
+    from topicos_archivo;
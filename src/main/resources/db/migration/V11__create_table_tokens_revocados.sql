@@ -0,0 +1,12 @@
+-- Tokens JWT revocados (logout o compromiso) antes de su expiración.
+-- Se guarda solo el identificador (jti), nunca el token. Las filas se borran cuando el token
+-- igual habría expirado; al arrancar, cada instancia reconstruye su lista en memoria desde esta tabla.
+create table tokens_revocados (
+    jti varchar(36) not null,
+    expira_en datetime not null,
+    fecha_de_revocacion datetime not null,
+    primary key (jti)
+);
+
+create index idx_tokens_revocados_expira_en on tokens_revocados (expira_en);
+create index idx_tokens_revocados_fecha_de_revocacion on tokens_revocados (fecha_de_revocacion);
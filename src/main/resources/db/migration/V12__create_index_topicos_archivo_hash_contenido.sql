@@ -0,0 +1,3 @@
+-- Los tópicos archivados siguen contando para la detección de duplicados (ver ITopicoHistoricoRepository).
+-- No es único: antes de esta versión un tópico igual a uno archivado se podía volver a crear.
+create index idx_topicos_archivo_hash_contenido on topicos_archivo (hash_contenido);
@@ -0,0 +1,9 @@
+-- La exportación completa lee la vista (tópicos activos y archivados) y filtra por el prefijo del curso normalizado.
+create or replace view topicos_historico as
+    select id, titulo, mensaje, fecha_de_creacion, fecha_de_actualizacion, status, curso, curso_normalizado,
+           usuario_id, activo, version
+    from topicos
+    union all
+    select id, titulo, mensaje, fecha_de_creacion, fecha_de_actualizacion, status, curso, curso_normalizado,
+           usuario_id, activo, version
+    from topicos_archivo;
@@ -0,0 +1,2 @@
+-- Índice compuesto para la paginación por cursor (keyset) ordenada por fecha de creación e id.
+create index idx_topicos_fecha_de_creacion_id on topicos (fecha_de_creacion, id);
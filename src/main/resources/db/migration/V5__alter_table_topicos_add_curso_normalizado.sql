@@ -0,0 +1,9 @@
+-- Columna con el nombre del curso normalizado (minúsculas, sin tildes ni espacios extra).
+-- La aplicación la completa al registrar o actualizar un tópico; para las filas existentes
+-- alcanza con lower/trim porque la collation por defecto de MySQL ya ignora los acentos.
+alter table topicos add curso_normalizado varchar(100);
+update topicos set curso_normalizado = lower(trim(curso));
+alter table topicos modify curso_normalizado varchar(100) not null;
+
+-- Búsqueda por prefijo de curso, opcionalmente acotada por rango de fechas.
+create index idx_topicos_curso_normalizado_fecha on topicos (curso_normalizado, fecha_de_creacion);
@@ -0,0 +1,3 @@
+-- Hash SHA-256 (hexadecimal) de título + mensaje, usado para detectar tópicos duplicados.
+-- Se completa en la migración V7 (Java) y se vuelve único en la V8.
+alter table topicos add hash_contenido char(64);
@@ -0,0 +1,3 @@
+-- La base de datos garantiza que no haya dos tópicos con el mismo título y mensaje,
+-- incluso con registros concurrentes. Los NULL (duplicados históricos) no cuentan para el índice.
+create unique index uk_topicos_hash_contenido on topicos (hash_contenido);
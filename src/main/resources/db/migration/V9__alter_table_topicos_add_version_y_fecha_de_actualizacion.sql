@@ -0,0 +1,6 @@
+-- Control de concurrencia optimista (@Version) y fecha de la última modificación.
+-- Se usan para responder GET condicionales (ETag / Last-Modified) con 304 Not Modified.
+alter table topicos add version bigint not null default 0;
+alter table topicos add fecha_de_actualizacion datetime;
+update topicos set fecha_de_actualizacion = fecha_de_creacion;
+alter table topicos modify fecha_de_actualizacion datetime not null;
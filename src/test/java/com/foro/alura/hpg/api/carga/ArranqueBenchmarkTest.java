@@ -0,0 +1,188 @@
+package com.foro.alura.hpg.api.carga;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compara el arranque en frío del jar por defecto contra el build del perfil 'arranque-rapido'
+ * (AOT + AppCDS + application-arranque-rapido.properties), lanzando cada uno en una JVM aparte.
+ * * Mide el tiempo desde que se lanza el proceso hasta la primera respuesta HTTP de POST /login
+ * (pasa por Spring Security, el controller y JPA) y la memoria residente (VmRSS) en ese momento.
+ * * Se ejecuta después de construir con el perfil:
+ * mvn -Parranque-rapido -DskipTests package
+ * mvn test -Pbenchmark -Dtest=ArranqueBenchmarkTest -Dsurefire.failIfNoSpecifiedTests=false
+ * [-Darranque.repeticiones=5] [-Darranque.args="--spring.datasource.url=..."]
+ * * Ambos procesos se conectan a la base configurada (la misma que usó el entrenamiento de AppCDS).
+ * * Como compuerta de regresión: -Darranque.maximo-ms=... hace fallar la prueba si la mediana
+ * del arranque rápido lo supera.
+ */
+@Tag("benchmark")
+class ArranqueBenchmarkTest {
+
+    private static final int REPETICIONES = Integer.getInteger("arranque.repeticiones", 3);
+    private static final List<String> ARGUMENTOS = Arrays.stream(System.getProperty("arranque.args", "").split("\\s+"))
+            .filter(argumento -> !argumento.isBlank())
+            .toList();
+    private static final Duration TIMEOUT = Duration.ofSeconds(Long.getLong("arranque.timeout-segundos", 120));
+    private static final Long MAXIMO_MS = Long.getLong("arranque.maximo-ms");
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path DIRECTORIO_RAPIDO = TARGET.resolve("arranque-rapido");
+    private static final String LOGIN = "{\"email\": \"arranque@foro.com\", \"password\": \"arranque\"}";
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(500))
+            .build();
+
+    @Test
+    void arranqueRapidoContraBuildPorDefecto() throws Exception {
+        var jar = jarDelBuild();
+        assumeTrue(jar != null && Files.exists(DIRECTORIO_RAPIDO.resolve("application.jsa")),
+                "Construir primero con: mvn -Parranque-rapido -DskipTests package");
+        var nombreJar = jar.getFileName().toString();
+
+        var porDefecto = new Variante("por-defecto", TARGET,
+                List.of("java", "-jar", nombreJar));
+        var rapido = new Variante("arranque-rapido", DIRECTORIO_RAPIDO,
+                List.of("java", "-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true",
+                        "-jar", nombreJar, "--spring.profiles.active=arranque-rapido"));
+
+        var resultados = new ArrayList<Resultado>();
+        for (var variante : List.of(porDefecto, rapido)) {
+            var mediciones = new ArrayList<Medicion>();
+            for (int i = 0; i < REPETICIONES; i++) {
+                mediciones.add(medir(variante, i));
+            }
+            resultados.add(new Resultado(variante.nombre(), mediciones));
+        }
+
+        System.out.printf("Arranque en frío: repeticiones=%d (medianas)%n", REPETICIONES);
+        resultados.forEach(System.out::println);
+        var mejora = (double) resultados.get(0).medianaMs() / Math.max(1, resultados.get(1).medianaMs());
+        System.out.printf("arranque-rapido responde %.2fx antes que el build por defecto%n", mejora);
+
+        if (MAXIMO_MS != null) {
+            assertThat(resultados.get(1).medianaMs())
+                    .as("mediana hasta la primera respuesta del arranque rápido (ms)")
+                    .isLessThanOrEqualTo(MAXIMO_MS);
+        }
+    }
+
+    private Medicion medir(Variante variante, int repeticion) throws Exception {
+        var puerto = puertoLibre();
+        var comando = new ArrayList<>(variante.comando());
+        comando.add("--server.port=" + puerto);
+        comando.addAll(ARGUMENTOS);
+
+        var log = TARGET.resolve("arranque-" + variante.nombre() + "-" + repeticion + ".log");
+        var inicio = System.nanoTime();
+        var proceso = new ProcessBuilder(comando)
+                .directory(variante.directorio().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            var pedido = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/login"))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(10))
+                    .POST(HttpRequest.BodyPublishers.ofString(LOGIN))
+                    .build();
+
+            // Cualquier código HTTP cuenta: lo que se mide es cuándo la API ya atiende pedidos.
+            while (true) {
+                if (!proceso.isAlive()) {
+                    throw new IllegalStateException("La variante " + variante.nombre() + " terminó al arrancar; ver " + log);
+                }
+                if (System.nanoTime() - inicio > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("La variante " + variante.nombre() + " no respondió en " + TIMEOUT + "; ver " + log);
+                }
+                try {
+                    cliente.send(pedido, HttpResponse.BodyHandlers.discarding());
+                    break;
+                } catch (IOException exception) {
+                    Thread.sleep(10);
+                }
+            }
+            var ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            return new Medicion(ms, memoriaResidenteKb(proceso.pid()));
+        } finally {
+            proceso.destroy();
+            if (!proceso.waitFor(10, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * VmRSS del proceso en KB (solo Linux); -1 si no se puede leer.
+     */
+    private static long memoriaResidenteKb(long pid) {
+        try {
+            return Files.readAllLines(Path.of("/proc", Long.toString(pid), "status")).stream()
+                    .filter(linea -> linea.startsWith("VmRSS:"))
+                    .map(linea -> linea.replaceAll("\\D", ""))
+                    .mapToLong(Long::parseLong)
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException exception) {
+            return -1;
+        }
+    }
+
+    private static Path jarDelBuild() throws IOException {
+        if (!Files.isDirectory(TARGET)) {
+            return null;
+        }
+        try (var archivos = Files.list(TARGET)) {
+            return archivos.filter(archivo -> archivo.getFileName().toString().matches("api-.*(?<!-plain)\\.jar"))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variante(String nombre, Path directorio, List<String> comando) {
+    }
+
+    private record Medicion(long ms, long rssKb) {
+    }
+
+    private record Resultado(String variante, List<Medicion> mediciones) {
+
+        long medianaMs() {
+            return mediciones.stream().mapToLong(Medicion::ms).sorted().skip(mediciones.size() / 2).findFirst().orElse(0);
+        }
+
+        long medianaRssKb() {
+            return mediciones.stream().mapToLong(Medicion::rssKb).sorted().skip(mediciones.size() / 2).findFirst().orElse(0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-16s primera respuesta=%6d ms  rss=%5d MB  (ms: %s)", variante, medianaMs(),
+                    medianaRssKb() / 1024, mediciones.stream().map(Medicion::ms).toList());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.foro.alura.hpg.api.carga;
+
+import com.foro.alura.hpg.api.domain.topico.FiltroBloomTopicos;
+import com.foro.alura.hpg.api.domain.topico.ITopicoRepository;
+import com.foro.alura.hpg.api.domain.topico.ImportadorTopicos;
+import com.foro.alura.hpg.api.domain.topico.IndiceBusquedaTopicos;
+import com.foro.alura.hpg.api.domain.topico.Topico;
+import com.foro.alura.hpg.api.domain.usuario.DatosRegistroUsuario;
+import com.foro.alura.hpg.api.domain.usuario.IUsuarioRepository;
+import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import com.foro.alura.hpg.api.infra.security.TokenService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de punta a punta: levanta ApiApplication sobre H2 (modo MySQL, migraciones Flyway),
+ * siembra usuarios y tópicos y ejecuta una mezcla de login, listado, búsqueda, detalle, alta,
+ * actualización y borrado desde muchos clientes concurrentes.
+ * * Informa req/s y p50 / p99 / p99.9 por endpoint.
+ * * Se ejecuta con: mvn test -Pbenchmark -Dtest=CargaMixtaBenchmarkTest
+ * [-Dcarga.usuarios=50] [-Dcarga.topicos=5000] [-Dcarga.clientes=100] [-Dcarga.segundos=20]
+ * * Como compuerta de regresión: -Dcarga.p99-maximo-ms=... hace fallar la prueba si algún endpoint
+ * lo supera, y -Dcarga.errores-maximos=... si algún endpoint devuelve más errores que ese número.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {ModoDeHilosBenchmark.SIN_LIMITE_LOGIN_IP, ModoDeHilosBenchmark.SIN_LIMITE_LOGIN_EMAIL})
+class CargaMixtaBenchmarkTest {
+
+    private static final int USUARIOS = Integer.getInteger("carga.usuarios", 50);
+    private static final int TOPICOS = Integer.getInteger("carga.topicos", 5000);
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 100);
+    private static final Duration DURACION = Duration.ofSeconds(Long.getLong("carga.segundos", 20));
+    private static final Long P99_MAXIMO_MS = Long.getLong("carga.p99-maximo-ms");
+    private static final Long ERRORES_MAXIMOS = Long.getLong("carga.errores-maximos");
+
+    private static final String PASSWORD = "secreto";
+    private static final String[] CURSOS = {"Java", "Spring Boot", "MySQL", "Docker", "JavaScript"};
+    private static final String[] PALABRAS = {"error", "consulta", "spring", "hibernate", "docker", "índice", "transacción"};
+    private static final Pattern ID_EN_LOCATION = Pattern.compile("/topicos/(\\d+)$");
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private IUsuarioRepository iUsuarioRepository;
+
+    @Autowired
+    private ITopicoRepository iTopicoRepository;
+
+    @Autowired
+    private ImportadorTopicos importadorTopicos;
+
+    @Autowired
+    private IndiceBusquedaTopicos indiceBusqueda;
+
+    @Autowired
+    private FiltroBloomTopicos filtroDuplicados;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void cargaMixtaDePuntaAPunta() throws Exception {
+        iTopicoRepository.deleteAll();
+        iUsuarioRepository.deleteAll();
+
+        // 1. Usuarios: se codifica la contraseña una sola vez (BCrypt es caro) y se reutiliza el hash.
+        var hash = passwordEncoder.encode(PASSWORD);
+        var usuarios = new ArrayList<Usuario>(USUARIOS);
+        for (int u = 0; u < USUARIOS; u++) {
+            usuarios.add(new Usuario(new DatosRegistroUsuario("Usuario" + u, "Carga", "usuario" + u + "@foro.com", hash)));
+        }
+        usuarios = new ArrayList<>(iUsuarioRepository.saveAll(usuarios));
+        var tokens = usuarios.stream().map(u -> "Bearer " + tokenService.generarToken(u)).toList();
+        var idsUsuarios = usuarios.stream().map(Usuario::getId).toList();
+
+        // 2. Tópicos: importación NDJSON por lotes, igual que POST /topicos/importar.
+        var ndjson = new StringBuilder();
+        for (int t = 0; t < TOPICOS; t++) {
+            ndjson.append("{\"titulo\":\"Titulo ").append(t).append(' ').append(palabra())
+                    .append("\",\"mensaje\":\"Mensaje ").append(t).append(" sobre ").append(palabra()).append(' ').append(palabra())
+                    .append("\",\"usuarioId\":").append(idsUsuarios.get(t % idsUsuarios.size()))
+                    .append(",\"curso\":\"").append(CURSOS[t % CURSOS.length]).append("\"}\n");
+        }
+        var resumen = importadorTopicos.importar(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+        assertThat(resumen.insertados()).isEqualTo(TOPICOS);
+        indiceBusqueda.construir();
+        filtroDuplicados.construir();
+
+        // Los tópicos sembrados se leen y actualizan; solo se borran los creados durante la carga.
+        var idsSembrados = iTopicoRepository.findAll().stream().mapToLong(Topico::getId).toArray();
+        var creados = new ConcurrentLinkedQueue<Long>();
+
+        var base = "http://localhost:" + puerto;
+        var operaciones = List.of(
+                new GeneradorDeCarga.Operacion("POST /login", 3, () -> {
+                    var email = "usuario" + ThreadLocalRandom.current().nextInt(USUARIOS) + "@foro.com";
+                    return enviar(HttpRequest.newBuilder(URI.create(base + "/login"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}")));
+                }),
+                new GeneradorDeCarga.Operacion("GET /topicos", 25, () ->
+                        enviar(autenticado(base + "/topicos?size=10&page=" + ThreadLocalRandom.current().nextInt(10), tokens))),
+                new GeneradorDeCarga.Operacion("GET /topicos/search", 15, () ->
+                        enviar(autenticado(base + "/topicos/search?q=" + URLEncoder.encode(palabra(), StandardCharsets.UTF_8), tokens))),
+                new GeneradorDeCarga.Operacion("GET /topicos/{id}", 40, () ->
+                        enviar(autenticado(base + "/topicos/" + elegir(idsSembrados), tokens))),
+                new GeneradorDeCarga.Operacion("POST /topicos", 7, () -> {
+                    var respuesta = cliente.send(autenticado(base + "/topicos", tokens)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"titulo\":\"Nuevo " + palabra() + "\",\"mensaje\":\"" + UUID.randomUUID()
+                                            + "\",\"usuarioId\":" + idsUsuarios.get(ThreadLocalRandom.current().nextInt(idsUsuarios.size()))
+                                            + ",\"curso\":\"" + CURSOS[ThreadLocalRandom.current().nextInt(CURSOS.length)] + "\"}"))
+                            .build(), HttpResponse.BodyHandlers.discarding());
+                    respuesta.headers().firstValue("Location")
+                            .map(ID_EN_LOCATION::matcher)
+                            .filter(Matcher::find)
+                            .ifPresent(m -> creados.add(Long.valueOf(m.group(1))));
+                    return respuesta.statusCode();
+                }),
+                new GeneradorDeCarga.Operacion("PUT /topicos", 5, () ->
+                        enviar(autenticado(base + "/topicos", tokens)
+                                .header("Content-Type", "application/json")
+                                .PUT(HttpRequest.BodyPublishers.ofString(
+                                        "{\"id\":" + elegir(idsSembrados) + ",\"mensaje\":\"Editado " + UUID.randomUUID() + "\"}")))),
+                new GeneradorDeCarga.Operacion("DELETE /topicos/{id}", 5, () -> {
+                    var id = creados.poll();
+                    if (id == null) {
+                        return GeneradorDeCarga.NO_EJECUTADO;
+                    }
+                    return enviar(autenticado(base + "/topicos/" + id, tokens).DELETE());
+                }));
+
+        var resultados = GeneradorDeCarga.ejecutarMezcla(CLIENTES, DURACION, operaciones);
+
+        System.out.printf("Carga mixta: usuarios=%d topicos=%d clientes=%d duracion=%ds%n",
+                USUARIOS, TOPICOS, CLIENTES, DURACION.toSeconds());
+        resultados.forEach(System.out::println);
+
+        for (var resultado : resultados) {
+            if (P99_MAXIMO_MS != null) {
+                assertThat(resultado.p99Micros()).as("p99 de %s", resultado.nombre()).isLessThanOrEqualTo(P99_MAXIMO_MS * 1_000);
+            }
+            if (ERRORES_MAXIMOS != null) {
+                assertThat(resultado.errores()).as("errores de %s", resultado.nombre()).isLessThanOrEqualTo(ERRORES_MAXIMOS);
+            }
+        }
+    }
+
+    private int enviar(HttpRequest.Builder pedido) throws Exception {
+        return cliente.send(pedido.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static HttpRequest.Builder autenticado(String url, List<String> tokens) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", tokens.get(ThreadLocalRandom.current().nextInt(tokens.size())));
+    }
+
+    private static long elegir(long[] ids) {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static String palabra() {
+        return PALABRAS[ThreadLocalRandom.current().nextInt(PALABRAS.length)];
+    }
+}
@@ -0,0 +1,167 @@
+package com.foro.alura.hpg.api.carga;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga simple para las pruebas de rendimiento (tag "benchmark").
+ * * Lanza 'clientes' hilos que repiten pedidos durante 'duracion' y mide la latencia de cada uno.
+ * * Con una mezcla de operaciones, cada pedido elige una operación al azar según su peso
+ * y los resultados se informan por separado para cada una.
+ * * Informa pedidos por segundo y los percentiles p50 / p99 / p99.9 en microsegundos.
+ */
+public final class GeneradorDeCarga {
+
+    /**
+     * Código que puede devolver un pedido para indicar que no se ejecutó (no se mide ni se cuenta).
+     */
+    public static final int NO_EJECUTADO = -1;
+
+    private static final int MUESTRAS_POR_CLIENTE = 1 << 16;
+
+    private GeneradorDeCarga() {
+    }
+
+    /**
+     * @param pedido Ejecuta un pedido y devuelve el código HTTP obtenido (>= 400 cuenta como error).
+     */
+    public static Resultado ejecutar(String nombre, int clientes, Duration duracion, Callable<Integer> pedido)
+            throws InterruptedException {
+        return ejecutarMezcla(clientes, duracion, List.of(new Operacion(nombre, 1, pedido))).get(0);
+    }
+
+    /**
+     * Ejecuta una mezcla ponderada de operaciones y devuelve un resultado por operación, en el mismo orden.
+     */
+    public static List<Resultado> ejecutarMezcla(int clientes, Duration duracion, List<Operacion> operaciones)
+            throws InterruptedException {
+
+        var pesoTotal = operaciones.stream().mapToInt(Operacion::peso).sum();
+        var cantidadOperaciones = operaciones.size();
+        var muestrasPorOperacion = Math.max(1, MUESTRAS_POR_CLIENTE / cantidadOperaciones);
+
+        // [cliente][operacion] -> latencias y cantidades; cada hilo escribe solo en su fila.
+        var latencias = new long[clientes][cantidadOperaciones][muestrasPorOperacion];
+        var cantidades = new int[clientes][cantidadOperaciones];
+        var errores = new LongAdder[cantidadOperaciones];
+        Arrays.setAll(errores, i -> new LongAdder());
+
+        var largada = new CountDownLatch(1);
+        var fin = new CountDownLatch(clientes);
+
+        var ejecutor = Executors.newFixedThreadPool(clientes);
+        try {
+            for (int c = 0; c < clientes; c++) {
+                var indiceCliente = c;
+
+                ejecutor.execute(() -> {
+                    try {
+                        largada.await();
+                        var limite = System.nanoTime() + duracion.toNanos();
+                        while (System.nanoTime() < limite) {
+                            var indice = elegir(operaciones, pesoTotal);
+                            var inicio = System.nanoTime();
+                            int estado;
+                            try {
+                                estado = operaciones.get(indice).pedido().call();
+                            } catch (Exception exception) {
+                                estado = 599;
+                            }
+                            if (estado == NO_EJECUTADO) {
+                                continue;
+                            }
+                            if (estado >= 400) {
+                                errores[indice].increment();
+                            }
+                            var cantidad = cantidades[indiceCliente][indice];
+                            if (cantidad < muestrasPorOperacion) {
+                                latencias[indiceCliente][indice][cantidad] = (System.nanoTime() - inicio) / 1_000;
+                            }
+                            cantidades[indiceCliente][indice] = cantidad + 1;
+                        }
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        fin.countDown();
+                    }
+                });
+            }
+
+            var inicio = System.nanoTime();
+            largada.countDown();
+            fin.await();
+            var segundos = (System.nanoTime() - inicio) / 1e9;
+
+            var resultados = new ArrayList<Resultado>(cantidadOperaciones);
+            for (int o = 0; o < cantidadOperaciones; o++) {
+                var latenciasPorCliente = new ArrayList<long[]>(clientes);
+                var cantidadesPorCliente = new int[clientes];
+                for (int c = 0; c < clientes; c++) {
+                    latenciasPorCliente.add(latencias[c][o]);
+                    cantidadesPorCliente[c] = cantidades[c][o];
+                }
+                resultados.add(Resultado.calcular(operaciones.get(o).nombre(), latenciasPorCliente,
+                        cantidadesPorCliente, errores[o].sum(), segundos));
+            }
+            return resultados;
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private static int elegir(List<Operacion> operaciones, int pesoTotal) {
+        var azar = ThreadLocalRandom.current().nextInt(pesoTotal);
+        for (int i = 0; i < operaciones.size(); i++) {
+            azar -= operaciones.get(i).peso();
+            if (azar < 0) {
+                return i;
+            }
+        }
+        return operaciones.size() - 1;
+    }
+
+    /**
+     * @param peso Proporción relativa de pedidos de esta operación dentro de la mezcla.
+     */
+    public record Operacion(String nombre, int peso, Callable<Integer> pedido) {
+    }
+
+    public record Resultado(String nombre, long pedidos, long errores, double porSegundo,
+                            long p50Micros, long p99Micros, long p999Micros) {
+
+        static Resultado calcular(String nombre, List<long[]> latenciasPorCliente, int[] cantidades,
+                                  long errores, double segundos) {
+            var total = Arrays.stream(cantidades).asLongStream().sum();
+            var muestrasPorCliente = new ArrayList<long[]>();
+            for (int c = 0; c < cantidades.length; c++) {
+                var latencias = latenciasPorCliente.get(c);
+                muestrasPorCliente.add(Arrays.copyOf(latencias, Math.min(cantidades[c], latencias.length)));
+            }
+            var muestras = muestrasPorCliente.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+
+            return new Resultado(nombre, total, errores, total / segundos,
+                    percentil(muestras, 0.50), percentil(muestras, 0.99), percentil(muestras, 0.999));
+        }
+
+        private static long percentil(long[] ordenadas, double percentil) {
+            if (ordenadas.length == 0) {
+                return 0;
+            }
+            var indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return "%-28s pedidos=%-8d errores=%-6d req/s=%-10.1f p50=%dus p99=%dus p99.9=%dus"
+                    .formatted(nombre, pedidos, errores, porSegundo, p50Micros, p99Micros, p999Micros);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.foro.alura.hpg.api.carga;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=false", ModoDeHilosBenchmark.SIN_LIMITE_LOGIN_IP, ModoDeHilosBenchmark.SIN_LIMITE_LOGIN_EMAIL})
+class HilosDePlataformaBenchmarkTest extends ModoDeHilosBenchmark {
+
+    @Override
+    protected String nombreDelModo() {
+        return "hilos de plataforma";
+    }
+}
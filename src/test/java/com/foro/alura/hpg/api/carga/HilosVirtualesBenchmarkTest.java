@@ -0,0 +1,22 @@
+package com.foro.alura.hpg.api.carga;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=true", "api.jdbc.limite.habilitado=true",
+                ModoDeHilosBenchmark.SIN_LIMITE_LOGIN_IP, ModoDeHilosBenchmark.SIN_LIMITE_LOGIN_EMAIL})
+class HilosVirtualesBenchmarkTest extends ModoDeHilosBenchmark {
+
+    @BeforeAll
+    static void requiereJdk21() {
+        assumeTrue(Runtime.version().feature() >= 21, "Los hilos virtuales requieren ejecutar con JDK 21 o superior");
+    }
+
+    @Override
+    protected String nombreDelModo() {
+        return "hilos virtuales";
+    }
+}
@@ -0,0 +1,93 @@
+package com.foro.alura.hpg.api.carga;
+
+import com.foro.alura.hpg.api.domain.topico.DatosRegistroTopico;
+import com.foro.alura.hpg.api.domain.topico.ITopicoRepository;
+import com.foro.alura.hpg.api.domain.topico.Topico;
+import com.foro.alura.hpg.api.domain.usuario.DatosRegistroUsuario;
+import com.foro.alura.hpg.api.domain.usuario.IUsuarioRepository;
+import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import com.foro.alura.hpg.api.infra.security.TokenService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compara el modo de hilos de plataforma con el de hilos virtuales bajo alta concurrencia.
+ * * Cada subclase levanta la aplicación con un modo distinto y ejecuta la misma carga:
+ * listado y detalle de tópicos (SecurityFilter + JDBC) mezclados con logins (BCrypt).
+ * * Se ejecuta con: mvn test -Pbenchmark [-Dcarga.clientes=400] [-Dcarga.segundos=15]
+ */
+@Tag("benchmark")
+abstract class ModoDeHilosBenchmark {
+
+    // La carga hace logins repetidos del mismo usuario: se desactiva el límite de intentos.
+    static final String SIN_LIMITE_LOGIN_IP = "api.security.login.limite.ip.capacidad=1000000000";
+    static final String SIN_LIMITE_LOGIN_EMAIL = "api.security.login.limite.email.capacidad=1000000000";
+
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 400);
+    private static final Duration DURACION = Duration.ofSeconds(Long.getLong("carga.segundos", 15));
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private IUsuarioRepository iUsuarioRepository;
+
+    @Autowired
+    private ITopicoRepository iTopicoRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    protected abstract String nombreDelModo();
+
+    @Test
+    void cargaMixtaConAltaConcurrencia() throws Exception {
+        iTopicoRepository.deleteAll();
+        iUsuarioRepository.deleteAll();
+
+        var usuario = iUsuarioRepository.save(new Usuario(new DatosRegistroUsuario(
+                "Carga", "Benchmark", "carga@foro.com", passwordEncoder.encode("secreto"))));
+        var ids = new long[200];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = iTopicoRepository.save(new Topico(new DatosRegistroTopico(
+                    "Titulo " + i, "Mensaje " + i, usuario.getId(), "Java"), usuario)).getId();
+        }
+
+        var token = "Bearer " + tokenService.generarToken(usuario);
+        var cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(5)).build();
+        var base = "http://localhost:" + puerto;
+
+        var resultado = GeneradorDeCarga.ejecutar(nombreDelModo(), CLIENTES, DURACION, () -> {
+            var azar = ThreadLocalRandom.current().nextInt(100);
+            HttpRequest pedido;
+            if (azar < 5) {
+                // El login es asíncrono (pool BCrypt propio): con la cola llena responde 429.
+                pedido = HttpRequest.newBuilder(URI.create(base + "/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"carga@foro.com\",\"password\":\"secreto\"}"))
+                        .build();
+            } else if (azar < 50) {
+                pedido = HttpRequest.newBuilder(URI.create(base + "/topicos?size=10")).header("Authorization", token).build();
+            } else {
+                var id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+                pedido = HttpRequest.newBuilder(URI.create(base + "/topicos/" + id)).header("Authorization", token).build();
+            }
+            return cliente.send(pedido, HttpResponse.BodyHandlers.discarding()).statusCode();
+        });
+
+        System.out.println(resultado);
+    }
+}
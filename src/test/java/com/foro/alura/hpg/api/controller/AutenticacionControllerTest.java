@@ -0,0 +1,131 @@
+package com.foro.alura.hpg.api.controller;
+
+import com.foro.alura.hpg.api.domain.topico.ITopicoRepository;
+import com.foro.alura.hpg.api.domain.usuario.DatosRegistroUsuario;
+import com.foro.alura.hpg.api.domain.usuario.IUsuarioRepository;
+import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import com.foro.alura.hpg.api.infra.security.RevocacionTokens;
+import com.foro.alura.hpg.api.infra.security.TokenService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login asíncrono (BCrypt en su propio pool), límite de intentos por email y cierre de sesión (revocación del token).
+ */
+@SpringBootTest(properties = {
+        "api.security.login.limite.email.capacidad=3",
+        "api.security.login.limite.email.por-minuto=1"
+})
+@AutoConfigureMockMvc
+class AutenticacionControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private IUsuarioRepository iUsuarioRepository;
+
+    @Autowired
+    private ITopicoRepository iTopicoRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void prepararDatos() {
+        iTopicoRepository.deleteAll();
+        iUsuarioRepository.deleteAll();
+        iUsuarioRepository.save(new Usuario(new DatosRegistroUsuario(
+                "Ana", "Login", "ana@foro.com", passwordEncoder.encode("secreto"))));
+    }
+
+    @Test
+    void iniciarSesionDevuelveUnToken() throws Exception {
+        login("ana@foro.com", "secreto")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenJWT").isNotEmpty());
+    }
+
+    @Test
+    void superarElLimitePorEmailDevuelve429ConRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            login("otra@foro.com", "incorrecta").andExpect(status().isForbidden());
+        }
+
+        mvc.perform(post("/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"OTRA@foro.com\", \"password\": \"incorrecta\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void cerrarSesionRevocaElTokenYLaRevocacionSobreviveAUnReinicio() throws Exception {
+        var token = JsonPath.<String>read(login("ana@foro.com", "secreto")
+                .andReturn().getResponse().getContentAsString(), "$.tokenJWT");
+        var otroToken = JsonPath.<String>read(login("ana@foro.com", "secreto")
+                .andReturn().getResponse().getContentAsString(), "$.tokenJWT");
+
+        mvc.perform(get("/topicos").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mvc.perform(post("/logout").header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        mvc.perform(get("/topicos").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        // Los demás tokens del usuario siguen valiendo hasta que se revoquen.
+        mvc.perform(get("/topicos").header("Authorization", "Bearer " + otroToken))
+                .andExpect(status().isOk());
+
+        // Una instancia nueva reconstruye la lista desde la tabla.
+        var jti = tokenService.verificar(token).jti();
+        var reconstruida = new RevocacionTokens(1000, 0.001);
+        ReflectionTestUtils.setField(reconstruida, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.invokeMethod(reconstruida, "inicializar");
+        assertThat(reconstruida.estaRevocado(jti)).isTrue();
+        assertThat(reconstruida.estaRevocado(tokenService.verificar(otroToken).jti())).isFalse();
+
+        // Las revocaciones de tokens que ya habrían expirado se purgan de la tabla.
+        jdbcTemplate.update("update tokens_revocados set expira_en = ? where jti = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), jti);
+        reconstruida.purgar();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from tokens_revocados where jti = ?", Integer.class, jti))
+                .isZero();
+    }
+
+    private ResultActions login(String email, String password) throws Exception {
+        var resultado = mvc.perform(post("/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"%s\", \"password\": \"%s\"}".formatted(email, password)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(resultado));
+    }
+}
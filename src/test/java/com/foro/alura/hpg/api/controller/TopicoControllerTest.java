@@ -0,0 +1,721 @@
+package com.foro.alura.hpg.api.controller;
+
+import com.foro.alura.hpg.api.domain.topico.ArchivadorTopicos;
+import com.foro.alura.hpg.api.domain.topico.CacheTopicos;
+import com.foro.alura.hpg.api.domain.topico.DatosRegistroTopico;
+import com.foro.alura.hpg.api.domain.topico.DatosSolicitudLoteTopicos;
+import com.foro.alura.hpg.api.domain.topico.EstadisticasTopicos;
+import com.foro.alura.hpg.api.domain.topico.FiltroBloomTopicos;
+import com.foro.alura.hpg.api.domain.topico.HashContenidoTopico;
+import com.foro.alura.hpg.api.domain.topico.IndiceBusquedaTopicos;
+import com.foro.alura.hpg.api.domain.topico.ITopicoRepository;
+import com.foro.alura.hpg.api.domain.topico.Topico;
+import com.foro.alura.hpg.api.domain.topico.TotalesAproximadosTopicos;
+import com.foro.alura.hpg.api.domain.usuario.DatosRegistroUsuario;
+import com.foro.alura.hpg.api.domain.usuario.IUsuarioRepository;
+import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import com.foro.alura.hpg.api.infra.security.CachePrincipales;
+import com.foro.alura.hpg.api.infra.security.TokenService;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica cuántas sentencias SQL ejecuta cada endpoint de listado y búsqueda de tópicos.
+ * * Cada página debe costar una consulta de filas más, como mucho, un COUNT(*):
+ * si el autor se vuelve a cargar de forma perezosa por cada tópico (N+1), estas pruebas fallan.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TopicoControllerTest {
+
+    private static final int AUTORES = 4;
+    private static final int TOPICOS_POR_AUTOR = 5;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ITopicoRepository iTopicoRepository;
+
+    @Autowired
+    private IUsuarioRepository iUsuarioRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private CachePrincipales cachePrincipales;
+
+    @Autowired
+    private IndiceBusquedaTopicos indiceBusqueda;
+
+    @Autowired
+    private ArchivadorTopicos archivadorTopicos;
+
+    @Autowired
+    private CacheTopicos cacheTopicos;
+
+    @Autowired
+    private FiltroBloomTopicos filtroDuplicados;
+
+    @Autowired
+    private EstadisticasTopicos estadisticasTopicos;
+
+    @Autowired
+    private TotalesAproximadosTopicos totalesAproximados;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String token;
+    private Long idTopico;
+    private Long idAutor;
+
+    @BeforeEach
+    void prepararDatos() {
+        jdbcTemplate.update("delete from topicos_archivo");
+        iTopicoRepository.deleteAll();
+        iUsuarioRepository.deleteAll();
+
+        Usuario ultimoAutor = null;
+        for (int a = 0; a < AUTORES; a++) {
+            var autor = iUsuarioRepository.save(new Usuario(new DatosRegistroUsuario(
+                    "Autor" + a, "Apellido", "autor" + a + "@foro.com", "secreto")));
+            for (int t = 0; t < TOPICOS_POR_AUTOR; t++) {
+                var topico = iTopicoRepository.save(new Topico(new DatosRegistroTopico(
+                        "Titulo " + a + "-" + t, "Mensaje " + a + "-" + t, autor.getId(), "Programación Java"), autor));
+                idTopico = topico.getId();
+            }
+            ultimoAutor = autor;
+            idAutor = autor.getId();
+        }
+
+        // El usuario autenticado queda en la cache del SecurityFilter para no sumar su SELECT a la medición.
+        token = tokenService.generarToken(ultimoAutor);
+        cachePrincipales.guardar(ultimoAutor.getEmail(), ultimoAutor);
+        tokenService.getSubject(token);
+
+        indiceBusqueda.construir();
+        estadisticasTopicos.reconciliar();
+        totalesAproximados.limpiar();
+    }
+
+    @Test
+    void listarEjecutaUnaConsultaDeFilasYUnCount() throws Exception {
+        assertThat(sentenciasAlPedir("/topicos?size=10&total=exacto")).isEqualTo(2);
+    }
+
+    @Test
+    void laUltimaPaginaConTotalAproximadoInformaElTotalReal() throws Exception {
+        mvc.perform(get("/topicos?size=10").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.totalElements").value(AUTORES * TOPICOS_POR_AUTOR));
+
+        // Bajas por SQL después de guardar el total: la cache todavía dice AUTORES * TOPICOS_POR_AUTOR.
+        var borrados = jdbcTemplate.update("update topicos set activo = false where titulo like 'Titulo 0-%'");
+        var reales = AUTORES * TOPICOS_POR_AUTOR - borrados;
+
+        mvc.perform(get("/topicos?size=10&page=1").header("Authorization", "Bearer " + token))
+                .andExpect(header().string("X-Total-Aproximado", "true"))
+                .andExpect(jsonPath("$.totalElements").value(reales))
+                .andExpect(jsonPath("$.numberOfElements").value(reales - 10))
+                .andExpect(jsonPath("$.last").value(true));
+        // El total exacto queda guardado para las demás páginas del mismo filtro.
+        mvc.perform(get("/topicos?size=10").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.totalElements").value(reales))
+                .andExpect(jsonPath("$.last").value(false));
+    }
+
+    @Test
+    void buscarPorCursoYAnioEjecutaUnaConsultaDeFilasYUnCount() throws Exception {
+        var anio = LocalDate.now().getYear();
+        assertThat(sentenciasAlPedir("/topicos/buscar?curso=programacion&anio=" + anio + "&size=10&total=exacto")).isEqualTo(2);
+        assertThat(sentenciasAlPedir("/topicos/buscar?curso=programacion&size=10&total=exacto")).isEqualTo(2);
+        assertThat(sentenciasAlPedir("/topicos/buscar?anio=" + anio + "&size=10&total=exacto")).isEqualTo(2);
+    }
+
+    @Test
+    void listarSinTotalOConTotalAproximadoNoCuentaEnCadaPedido() throws Exception {
+        // Slice: una sola consulta y sin total.
+        assertThat(sentenciasAlPedir("/topicos?size=10&total=ninguno")).isEqualTo(1);
+        assertThat(sentenciasAlPedir("/topicos/buscar?curso=programacion&size=10&total=ninguno")).isEqualTo(1);
+        mvc.perform(get("/topicos?size=10&total=ninguno").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.last").value(false));
+
+        // Aproximado: el primer pedido de cada filtro cuenta; los siguientes usan el total guardado.
+        assertThat(sentenciasAlPedir("/topicos?size=10")).isEqualTo(2);
+        assertThat(sentenciasAlPedir("/topicos?size=10&page=1")).isEqualTo(1);
+        assertThat(sentenciasAlPedir("/topicos/buscar?curso=programacion&size=10")).isEqualTo(2);
+        assertThat(sentenciasAlPedir("/topicos/buscar?curso=programacion&size=10")).isEqualTo(1);
+        // El listado con archivados sigue las mismas reglas (el COUNT sobre la vista también se guarda).
+        assertThat(sentenciasAlPedir("/topicos?incluirArchivados=true&size=10&total=ninguno")).isEqualTo(1);
+        assertThat(sentenciasAlPedir("/topicos?incluirArchivados=true&size=10")).isEqualTo(2);
+        assertThat(sentenciasAlPedir("/topicos?incluirArchivados=true&size=10")).isEqualTo(1);
+        mvc.perform(get("/topicos?size=10").header("Authorization", "Bearer " + token))
+                .andExpect(header().string("X-Total-Aproximado", "true"))
+                .andExpect(jsonPath("$.totalElements").value(AUTORES * TOPICOS_POR_AUTOR));
+
+        mvc.perform(get("/topicos?total=todos").header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listarPorCursorEjecutaUnaSolaConsulta() throws Exception {
+        assertThat(sentenciasAlPedir("/topicos/cursor?size=10")).isEqualTo(1);
+    }
+
+    @Test
+    void listarPorCursorRecorreLasPaginasEnAmbasDirecciones() throws Exception {
+        var primera = paginaCursor("/topicos/cursor?size=8");
+        assertThat(primera.ids()).hasSize(8);
+        assertThat(primera.anterior()).isNull();
+
+        var segunda = paginaCursor("/topicos/cursor?size=8&cursor=" + primera.siguiente());
+        assertThat(segunda.ids()).hasSize(8).doesNotContainAnyElementsOf(primera.ids());
+        assertThat(segunda.anterior()).isNotNull();
+
+        var tercera = paginaCursor("/topicos/cursor?size=8&cursor=" + segunda.siguiente());
+        assertThat(tercera.ids()).hasSize(AUTORES * TOPICOS_POR_AUTOR - 16);
+        assertThat(tercera.siguiente()).isNull();
+        assertThat(tercera.ids()).last().isEqualTo(idTopico.intValue());
+
+        // Hacia atrás desde la tercera página se vuelve a la segunda, en el mismo orden.
+        var deVuelta = paginaCursor("/topicos/cursor?size=8&direccion=anterior&cursor=" + tercera.anterior());
+        assertThat(deVuelta.ids()).isEqualTo(segunda.ids());
+        var inicio = paginaCursor("/topicos/cursor?size=8&direccion=anterior&cursor=" + deVuelta.anterior());
+        assertThat(inicio.ids()).isEqualTo(primera.ids());
+        assertThat(inicio.anterior()).isNull();
+
+        mvc.perform(get("/topicos/cursor?cursor=no-es-un-cursor").header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void buscarConUnSoloFiltroYConAnioFueraDeRango() throws Exception {
+        var anio = LocalDate.now().getYear();
+        totalAlListar("/topicos/buscar?curso=PROGRAMACIÓN&total=exacto", AUTORES * TOPICOS_POR_AUTOR);
+        totalAlListar("/topicos/buscar?curso=python&total=exacto", 0);
+        totalAlListar("/topicos/buscar?anio=" + anio + "&total=exacto", AUTORES * TOPICOS_POR_AUTOR);
+        totalAlListar("/topicos/buscar?anio=" + (anio - 1) + "&total=exacto", 0);
+
+        mvc.perform(get("/topicos/buscar?anio=1000000000").header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/topicos/buscar?anio=-5").header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void detallarEjecutaUnaSolaConsultaYLuegoUsaLaCache() throws Exception {
+        assertThat(sentenciasAlPedir("/topicos/" + idTopico)).isEqualTo(1);
+        assertThat(sentenciasAlPedir("/topicos/" + idTopico)).isZero();
+    }
+
+    @Test
+    void actualizarInvalidaLaCacheDelDetalle() throws Exception {
+        mvc.perform(get("/topicos/" + idTopico).header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.titulo").value("Titulo 3-4"));
+
+        mvc.perform(put("/topicos").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": %d, \"titulo\": \"Editado\"}".formatted(idTopico)))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/topicos/" + idTopico).header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.titulo").value("Editado"));
+    }
+
+    @Test
+    void detallarEnviaElJsonPreserializadoYSuVarianteGzip() throws Exception {
+        var mensajeLargo = "Un mensaje largo para superar el mínimo de gzip. ".repeat(5);
+        mvc.perform(put("/topicos").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": %d, \"mensaje\": \"%s\"}".formatted(idTopico, mensajeLargo)))
+                .andExpect(status().isOk());
+
+        var respuestaPlana = mvc.perform(get("/topicos/" + idTopico).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.mensaje").value(mensajeLargo))
+                .andExpect(jsonPath("$.status").value("ABIERTO"))
+                .andReturn().getResponse();
+        var plano = respuestaPlana.getContentAsByteArray();
+
+        var respuestaComprimida = mvc.perform(get("/topicos/" + idTopico).header("Authorization", "Bearer " + token)
+                        .header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse();
+        var comprimido = respuestaComprimida.getContentAsByteArray();
+        assertThat(comprimido.length).isLessThan(plano.length);
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(plano);
+        }
+
+        // Cada variante tiene su propio ETag fuerte: el de gzip no valida la copia sin comprimir.
+        var etagGzip = respuestaComprimida.getHeader("ETag");
+        assertThat(etagGzip).isNotEqualTo(respuestaPlana.getHeader("ETag")).endsWith("-gz\"");
+        mvc.perform(get("/topicos/" + idTopico).header("Authorization", "Bearer " + token).header("If-None-Match", etagGzip))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+        mvc.perform(get("/topicos/" + idTopico).header("Authorization", "Bearer " + token).header("If-None-Match", etagGzip)
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isNotModified());
+
+        // El listado escribe el mismo JSON dentro de la página.
+        mvc.perform(get("/topicos?size=100&total=ninguno").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.content[?(@.id == %d)].mensaje".formatted(idTopico)).value(mensajeLargo))
+                .andExpect(jsonPath("$.content[0].fechaDeCreacion").isString());
+    }
+
+    @Test
+    void detallarLoteRespetaElOrdenInformaLosFaltantesYUsaUnaSolaConsulta() throws Exception {
+        var eliminado = idTopico - 1;
+        mvc.perform(delete("/topicos/" + eliminado).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        // Con todos los ids en 'topicos' basta un SELECT; si faltan ids se busca una vez más en el archivo.
+        assertThat(sentenciasAlPedir("/topicos?ids=%d,%d".formatted(idTopico - 6, idTopico - 7))).isEqualTo(1);
+        var uri = "/topicos?ids=%d,%d,999999,%d,%d".formatted(idTopico - 5, idTopico, eliminado, idTopico - 5);
+        assertThat(sentenciasAlPedir(uri)).isEqualTo(2);
+
+        mvc.perform(get(uri).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.topicos.length()").value(2))
+                .andExpect(jsonPath("$.topicos[0].id").value(idTopico - 5))
+                .andExpect(jsonPath("$.topicos[1].id").value(idTopico))
+                .andExpect(jsonPath("$.topicos[1].nombreAutor").value("Autor" + (AUTORES - 1)))
+                .andExpect(jsonPath("$.noEncontrados[0]").value(999999))
+                .andExpect(jsonPath("$.noEncontrados[1]").value(eliminado));
+
+        mvc.perform(post("/topicos/batch").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [%d, %d]}".formatted(idTopico, idTopico - 1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.topicos[0].id").value(idTopico))
+                .andExpect(jsonPath("$.noEncontrados[0]").value(idTopico - 1));
+
+        var demasiados = LongStream.rangeClosed(1, 101).boxed().toList();
+        mvc.perform(post("/topicos/batch").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": %s}".formatted(demasiados)))
+                .andExpect(status().isBadRequest());
+
+        // Los repetidos también cuentan para el máximo, y el cuerpo nunca supera el tope fijo del DTO.
+        var repetidos = Collections.nCopies(101, idTopico);
+        mvc.perform(get("/topicos").param("ids", repetidos.stream().map(String::valueOf).toArray(String[]::new))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+        var porEncimaDelTope = LongStream.rangeClosed(1, DatosSolicitudLoteTopicos.MAX_IDS + 1).boxed().toList();
+        mvc.perform(post("/topicos/batch").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": %s}".formatted(porEncimaDelTope)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].campo").value("ids"));
+    }
+
+    @Test
+    void detallarRespondeNotModifiedSinCargarElTopico() throws Exception {
+        var etag = mvc.perform(get("/topicos/" + idTopico).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+
+        estadisticas().clear();
+        mvc.perform(get("/topicos/" + idTopico).header("Authorization", "Bearer " + token).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertThat(estadisticas().getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void listarRespondeNotModifiedSiLaPaginaNoCambio() throws Exception {
+        var etag = mvc.perform(get("/topicos?size=5").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/topicos?size=5").header("Authorization", "Bearer " + token).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // Al eliminar un tópico de la página entra otro más viejo: solo con If-Modified-Since no hay 304.
+        mvc.perform(delete("/topicos/" + idTopico).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        mvc.perform(get("/topicos?size=5&sort=fechaDeCreacion,desc").header("Authorization", "Bearer " + token)
+                        .header("If-Modified-Since", "Fri, 31 Dec 2100 23:59:59 GMT"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void buscarTextoSeResuelveEnMemoria() throws Exception {
+        assertThat(sentenciasAlPedir("/topicos/search?q=TÍTULO 2-3")).isZero();
+
+        mvc.perform(get("/topicos/search?q=MENSAJE").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalResultados").value(AUTORES * TOPICOS_POR_AUTOR));
+
+        mvc.perform(get("/topicos/search?q=inexistente").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalResultados").value(0));
+    }
+
+    @Test
+    void reconstruirElIndiceNoDejaBusquedasIncompletas() throws Exception {
+        var reconstrucciones = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 20; i++) {
+                indiceBusqueda.construir();
+            }
+        });
+
+        // Mientras se reconstruye, las búsquedas siguen viendo el índice anterior completo.
+        while (!reconstrucciones.isDone()) {
+            assertThat(indiceBusqueda.buscar("mensaje", 0, 1).totalResultados()).isEqualTo(AUTORES * TOPICOS_POR_AUTOR);
+        }
+        reconstrucciones.get(10, TimeUnit.SECONDS);
+        assertThat(indiceBusqueda.getCantidadDocumentos()).isEqualTo(AUTORES * TOPICOS_POR_AUTOR);
+    }
+
+    @Test
+    void registrarRechazaTopicosDuplicados() throws Exception {
+        var json = """
+                {"titulo": "Nuevo", "mensaje": "Mensaje nuevo", "usuarioId": %d, "curso": "Spring"}
+                """.formatted(idAutor);
+
+        mvc.perform(post("/topicos").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated());
+
+        mvc.perform(post("/topicos").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importarInsertaLasFilasValidasEInformaLasRechazadas() throws Exception {
+        var ndjson = String.join("\n",
+                "{\"titulo\": \"Importado\", \"mensaje\": \"Desde otro foro\", \"usuarioId\": %d, \"curso\": \"SQL\"}",
+                "{\"titulo\": \"Titulo 0-0\", \"mensaje\": \"Mensaje 0-0\", \"usuarioId\": %d, \"curso\": \"SQL\"}",
+                "{\"titulo\": \"Sin mensaje\", \"usuarioId\": %d, \"curso\": \"SQL\"}",
+                "esto no es json").formatted(idAutor, idAutor, idAutor);
+        var stream = mvc.perform(get("/topicos/stream").param("curso", "java")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        estadisticas().clear();
+        mvc.perform(post("/topicos/importar").header("Authorization", "Bearer " + token)
+                        .contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.filasLeidas").value(4))
+                .andExpect(jsonPath("$.insertados").value(1))
+                .andExpect(jsonPath("$.rechazados").value(3))
+                .andExpect(jsonPath("$.errores[0].linea").value(3))
+                .andExpect(jsonPath("$.errores[1].linea").value(4))
+                .andExpect(jsonPath("$.errores[2].linea").value(2));
+
+        assertThat(iTopicoRepository.count()).isEqualTo(AUTORES * TOPICOS_POR_AUTOR + 1);
+
+        // Las estructuras en memoria se arman con las filas y las claves generadas, sin cargar entidades.
+        assertThat(estadisticas().getEntityLoadCount()).isZero();
+        var idImportado = jdbcTemplate.queryForObject("select id from topicos where titulo = 'Importado'", Long.class);
+        mvc.perform(get("/topicos/search?q=importado").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.contenido[0].id").value(idImportado))
+                .andExpect(jsonPath("$.contenido[0].nombreAutor").value("Autor" + (AUTORES - 1)));
+        assertThat(estadisticasTopicos.reconciliar()).isZero();
+
+        // Un único evento de resumen, que llega aunque el suscriptor filtre por otro curso.
+        assertThat(esperarContenido(stream, "event:importado")).doesNotContain("event:creado");
+    }
+
+    @Test
+    void exportarEscribeUnaLineaPorTopico() throws Exception {
+        var ndjson = mvc.perform(get("/topicos/export?curso=programacion").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(ndjson.lines()).hasSize(AUTORES * TOPICOS_POR_AUTOR);
+
+        var csv = mvc.perform(get("/topicos/export?formato=csv&status=CERRADO").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(csv.lines()).containsExactly("id,titulo,mensaje,fechaDeCreacion,curso,nombreAutor,status");
+    }
+
+    @Test
+    void exportarIncluyeLosTopicosArchivados() throws Exception {
+        var idCerrado = idTopico - 1;
+        jdbcTemplate.update("update topicos set status = 'CERRADO', fecha_de_actualizacion = ? where id = ?",
+                LocalDateTime.now().minusYears(1), idCerrado);
+        assertThat(archivadorTopicos.archivar()).isEqualTo(1);
+
+        var csv = mvc.perform(get("/topicos/export?formato=csv&curso=programacion&status=CERRADO").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(csv.lines()).hasSize(2).last().asString().startsWith(idCerrado + ",Titulo 3-3,");
+        var ndjson = mvc.perform(get("/topicos/export").header("Authorization", "Bearer " + token))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(ndjson.lines()).hasSize(AUTORES * TOPICOS_POR_AUTOR);
+
+        // Solo la tabla caliente, a pedido.
+        var caliente = mvc.perform(get("/topicos/export?incluirArchivados=false").header("Authorization", "Bearer " + token))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(caliente.lines()).hasSize(AUTORES * TOPICOS_POR_AUTOR - 1);
+    }
+
+    @Test
+    void eliminarEsLogicoYElArchivadorMueveLosTopicosViejosALaTablaFria() throws Exception {
+        mvc.perform(delete("/topicos/" + idTopico).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        mvc.perform(get("/topicos/" + idTopico).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+        assertThat(iTopicoRepository.count()).isEqualTo(AUTORES * TOPICOS_POR_AUTOR);
+        totalAlListar("/topicos?total=exacto", AUTORES * TOPICOS_POR_AUTOR - 1);
+
+        // Un tópico cerrado hace un año y el eliminado (también viejo) pasan a topicos_archivo.
+        var idCerrado = idTopico - 1;
+        jdbcTemplate.update("update topicos set status = 'CERRADO' where id = ?", idCerrado);
+        jdbcTemplate.update("update topicos set fecha_de_actualizacion = ? where id in (?, ?)",
+                LocalDateTime.now().minusYears(1), idCerrado, idTopico);
+        // El cierre por SQL llega a las estadísticas con una reconciliación.
+        estadisticasTopicos.reconciliar();
+
+        assertThat(archivadorTopicos.archivar()).isEqualTo(2);
+        assertThat(iTopicoRepository.count()).isEqualTo(AUTORES * TOPICOS_POR_AUTOR - 2);
+        // El eliminado no vuelve al índice al reconstruirlo; el cerrado archivado sí sigue.
+        indiceBusqueda.construir();
+        mvc.perform(get("/topicos/search?q=MENSAJE").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.totalResultados").value(AUTORES * TOPICOS_POR_AUTOR - 1));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from topicos_archivo", Long.class)).isEqualTo(2);
+
+        // Por defecto solo se lee la tabla caliente; el archivo se incluye a pedido (sin los eliminados).
+        totalAlListar("/topicos?total=exacto", AUTORES * TOPICOS_POR_AUTOR - 2);
+        totalAlListar("/topicos?incluirArchivados=true", AUTORES * TOPICOS_POR_AUTOR - 1);
+        assertThat(archivadorTopicos.archivar()).isZero();
+
+        // Las estadísticas siguen contando el cerrado archivado: archivar no las cambia.
+        mvc.perform(get("/topicos/stats").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.total").value(AUTORES * TOPICOS_POR_AUTOR - 1))
+                .andExpect(jsonPath("$.porStatus.CERRADO").value(1));
+        assertThat(estadisticasTopicos.reconciliar()).isZero();
+
+        // Eliminar el archivado lo resta, igual que a uno de la tabla caliente.
+        mvc.perform(delete("/topicos/" + idCerrado).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        mvc.perform(get("/topicos/stats").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.total").value(AUTORES * TOPICOS_POR_AUTOR - 2))
+                .andExpect(jsonPath("$.porStatus.CERRADO").doesNotExist());
+        assertThat(estadisticasTopicos.reconciliar()).isZero();
+    }
+
+    @Test
+    void losTopicosArchivadosSeSiguenLeyendoYCuentanComoDuplicados() throws Exception {
+        // El tópico idCerrado (autor 3, tópico 3) se cierra y, por viejo, pasa a topicos_archivo.
+        var idCerrado = idTopico - 1;
+        jdbcTemplate.update("update topicos set status = 'CERRADO', fecha_de_actualizacion = ? where id = ?",
+                LocalDateTime.now().minusYears(1), idCerrado);
+        estadisticasTopicos.reconciliar();
+        assertThat(archivadorTopicos.archivar()).isEqualTo(1);
+
+        var etag = mvc.perform(get("/topicos/" + idCerrado).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CERRADO"))
+                .andExpect(jsonPath("$.titulo").value("Titulo 3-3"))
+                .andExpect(jsonPath("$.nombreAutor").value("Autor3"))
+                .andReturn().getResponse().getHeader("ETag");
+        cacheTopicos.invalidar(idCerrado);
+        mvc.perform(get("/topicos/" + idCerrado).header("Authorization", "Bearer " + token).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/topicos?ids=%d,%d".formatted(idCerrado, idTopico)).header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.topicos.length()").value(2))
+                .andExpect(jsonPath("$.topicos[0].status").value("CERRADO"))
+                .andExpect(jsonPath("$.noEncontrados").isEmpty());
+
+        // Sigue apareciendo en la búsqueda de texto, también después de reconstruir el índice.
+        mvc.perform(get("/topicos/search?q=MENSAJE").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.totalResultados").value(AUTORES * TOPICOS_POR_AUTOR));
+        indiceBusqueda.construir();
+        mvc.perform(get("/topicos/search?q=MENSAJE").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.totalResultados").value(AUTORES * TOPICOS_POR_AUTOR));
+
+        // Su contenido sigue contando como duplicado, aunque el filtro de Bloom se reconstruya.
+        filtroDuplicados.construir();
+        mvc.perform(post("/topicos").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\": \"Titulo 3-3\", \"mensaje\": \"Mensaje 3-3\", \"usuarioId\": %d, \"curso\": \"Java\"}".formatted(idAutor)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(HashContenidoTopico.MENSAJE_TOPICO_DUPLICADO));
+
+        assertThat(estadisticasTopicos.reconciliar()).isZero();
+
+        // Al modificarlo vuelve a la tabla caliente (sin sumarse otra vez a las estadísticas).
+        mvc.perform(put("/topicos").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": %d, \"titulo\": \"Reabierto\"}".formatted(idCerrado)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Reabierto"));
+        assertThat(iTopicoRepository.existsByIdAndActivoTrue(idCerrado)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from topicos_archivo", Long.class)).isZero();
+        mvc.perform(get("/topicos/" + idCerrado).header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.titulo").value("Reabierto"));
+        mvc.perform(get("/topicos/stats").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.total").value(AUTORES * TOPICOS_POR_AUTOR));
+        assertThat(estadisticasTopicos.reconciliar()).isZero();
+    }
+
+    @Test
+    void estadisticasSeRespondenDesdeMemoriaYSeMantienenEnCadaCambio() throws Exception {
+        assertThat(sentenciasAlPedir("/topicos/stats")).isZero();
+        mvc.perform(get("/topicos/stats").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.total").value(AUTORES * TOPICOS_POR_AUTOR))
+                .andExpect(jsonPath("$.porCurso['Programación Java']").value(AUTORES * TOPICOS_POR_AUTOR))
+                .andExpect(jsonPath("$.porStatus.ABIERTO").value(AUTORES * TOPICOS_POR_AUTOR))
+                .andExpect(jsonPath("$.porAnio['" + LocalDate.now().getYear() + "']").value(AUTORES * TOPICOS_POR_AUTOR))
+                .andExpect(jsonPath("$.porAutor.length()").value(AUTORES));
+
+        mvc.perform(post("/topicos").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\": \"Nuevo\", \"mensaje\": \"Nuevo\", \"usuarioId\": %d, \"curso\": \"Docker\"}".formatted(idAutor)))
+                .andExpect(status().isCreated());
+        mvc.perform(put("/topicos").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": %d, \"curso\": \"Docker\"}".formatted(idTopico)))
+                .andExpect(status().isOk());
+        // Las estadísticas se indexan por id de autor: eliminar no carga al autor del proxy.
+        estadisticas().clear();
+        mvc.perform(delete("/topicos/" + (idTopico - 1)).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        assertThat(estadisticas().getEntityStatistics(Usuario.class.getName()).getLoadCount()).isZero();
+
+        mvc.perform(get("/topicos/stats").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.total").value(AUTORES * TOPICOS_POR_AUTOR))
+                .andExpect(jsonPath("$.porCurso.Docker").value(2))
+                .andExpect(jsonPath("$.porCurso['Programación Java']").value(AUTORES * TOPICOS_POR_AUTOR - 2));
+        assertThat(estadisticasTopicos.reconciliar()).isZero();
+
+        // Un cambio hecho por fuera de la API se corrige en la siguiente reconciliación.
+        jdbcTemplate.update("update topicos set status = 'RESUELTO' where id = ?", idTopico);
+        assertThat(estadisticasTopicos.reconciliar()).isPositive();
+        mvc.perform(get("/topicos/stats").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.porStatus.RESUELTO").value(1));
+    }
+
+    @Test
+    void streamEnviaLosEventosDelCursoFiltradoYPermiteRetomarConLastEventId() throws Exception {
+        var soloDocker = mvc.perform(get("/topicos/stream").param("curso", "docker")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(post("/topicos").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\": \"Solo Java\", \"mensaje\": \"Java\", \"usuarioId\": %d, \"curso\": \"Java\"}".formatted(idAutor)))
+                .andExpect(status().isCreated());
+        mvc.perform(post("/topicos").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\": \"Sobre Docker\", \"mensaje\": \"Docker\", \"usuarioId\": %d, \"curso\": \"Docker\"}".formatted(idAutor)))
+                .andExpect(status().isCreated());
+        mvc.perform(delete("/topicos/" + idTopico).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        var recibido = esperarContenido(soloDocker, "Sobre Docker");
+        assertThat(recibido).contains("event:creado").doesNotContain("Solo Java").doesNotContain("event:eliminado");
+
+        // Un cliente que se reconecta recibe, desde el anillo, solo lo posterior a su último evento.
+        var idEventoDocker = Long.parseLong(recibido.lines().filter(linea -> linea.startsWith("id:"))
+                .findFirst().orElseThrow().substring(3));
+        var retomado = mvc.perform(get("/topicos/stream").header("Authorization", "Bearer " + token)
+                        .header("Last-Event-ID", idEventoDocker))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Se espera el dato (se escribe después del nombre del evento) para no leer el evento a medias.
+        assertThat(esperarContenido(retomado, "\"topicoId\":" + idTopico + ","))
+                .contains("event:eliminado").doesNotContain("Sobre Docker");
+
+        // Si el último evento ya no se puede reconstruir, se avisa que hay que recargar.
+        var desfasado = mvc.perform(get("/topicos/stream").header("Authorization", "Bearer " + token)
+                        .header("Last-Event-ID", idEventoDocker + 1000))
+                .andReturn();
+        esperarContenido(desfasado, "event:desfasado");
+    }
+
+    private static String esperarContenido(MvcResult resultado, String esperado) throws Exception {
+        var limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < limite) {
+            var contenido = resultado.getResponse().getContentAsString(StandardCharsets.UTF_8);
+            if (contenido.contains(esperado)) {
+                return contenido;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No llegó '" + esperado + "' por /topicos/stream: "
+                + resultado.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private PaginaCursor paginaCursor(String uri) throws Exception {
+        var json = mvc.perform(get(uri).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return new PaginaCursor(JsonPath.read(json, "$.contenido[*].id"),
+                JsonPath.read(json, "$.siguiente"), JsonPath.read(json, "$.anterior"));
+    }
+
+    private record PaginaCursor(List<Integer> ids, String siguiente, String anterior) {
+    }
+
+    private void totalAlListar(String uri, int total) throws Exception {
+        mvc.perform(get(uri).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(total));
+    }
+
+    private long sentenciasAlPedir(String uri) throws Exception {
+        var estadisticas = estadisticas();
+        estadisticas.clear();
+
+        mvc.perform(get(uri).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    private Statistics estadisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,128 @@
+package com.foro.alura.hpg.api.domain.topico;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CanalEventosTopicosTest {
+
+    private CanalEventosTopicos canal;
+    private final EmitterTrabado trabado = new EmitterTrabado();
+
+    @AfterEach
+    void cerrar() {
+        trabado.liberar.countDown();
+        canal.cerrar();
+    }
+
+    @Test
+    void unSuscriptorQueNoLeeSeDesconectaYNoFrenaALosDemas() throws Exception {
+        // Un solo hilo de envío: si el suscriptor trabado lo retiene, nadie más recibe eventos.
+        canal = new CanalEventosTopicos(100, 10, 60_000, "descartar", 1, 100);
+        canal.suscribir(trabado, null, null);
+        canal.publicar(DatosEventoTopico.Tipo.CREADO, 1L, "Java", null);
+        assertThat(trabado.escribiendo.await(5, TimeUnit.SECONDS)).isTrue();
+
+        var sano = new EmitterSano();
+        canal.suscribir(sano, null, null);
+        canal.publicar(DatosEventoTopico.Tipo.CREADO, 2L, "Java", null);
+        assertThat(sano.eventos.poll(300, TimeUnit.MILLISECONDS)).isNull();
+
+        // El corte no espera a que la escritura trabada termine (complete() sí lo haría).
+        Thread.sleep(150);
+        CompletableFuture.runAsync(canal::cortarEnviosTrabados).get(2, TimeUnit.SECONDS);
+
+        assertThat(sano.eventos.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(trabado.interrumpido.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(canal.getSuscriptores()).isEqualTo(1);
+        assertThat(canal.getDesconexionesPorLentitud()).isEqualTo(1);
+
+        // Cuando la escritura por fin vuelve, el hilo extra se devuelve y el sano sigue recibiendo.
+        trabado.liberar.countDown();
+        assertThat(trabado.cerrado.await(5, TimeUnit.SECONDS)).isTrue();
+        canal.publicar(DatosEventoTopico.Tipo.ACTUALIZADO, 2L, "Java", null);
+        assertThat(sano.eventos.poll(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void desconectarAUnSuscriptorTrabadoNoFrenaLaPublicacion() throws Exception {
+        canal = new CanalEventosTopicos(100, 1, 60_000, "desconectar", 1, 60_000);
+        canal.suscribir(trabado, null, null);
+        canal.publicar(DatosEventoTopico.Tipo.CREADO, 1L, "Java", null);
+        assertThat(trabado.escribiendo.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // El segundo evento llena su cola y el tercero lo desconecta mientras su escritura sigue trabada.
+        CompletableFuture.runAsync(() -> {
+            canal.publicar(DatosEventoTopico.Tipo.CREADO, 2L, "Java", null);
+            canal.publicar(DatosEventoTopico.Tipo.CREADO, 3L, "Java", null);
+            canal.publicar(DatosEventoTopico.Tipo.CREADO, 4L, "Java", null);
+        }).get(2, TimeUnit.SECONDS);
+
+        assertThat(canal.getSuscriptores()).isZero();
+        assertThat(canal.getDesconexionesPorLentitud()).isEqualTo(1);
+        assertThat(trabado.cerrado.getCount()).isEqualTo(1);
+        trabado.liberar.countDown();
+        assertThat(trabado.cerrado.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void unEnvioQueTerminaATiempoNoDesconecta() throws Exception {
+        canal = new CanalEventosTopicos(100, 10, 60_000, "descartar", 1, 100);
+        var sano = new EmitterSano();
+        canal.suscribir(sano, null, null);
+        canal.publicar(DatosEventoTopico.Tipo.CREADO, 1L, "Java", null);
+        assertThat(sano.eventos.poll(5, TimeUnit.SECONDS)).isNotNull();
+
+        canal.cortarEnviosTrabados();
+        assertThat(canal.getSuscriptores()).isEqualTo(1);
+        assertThat(canal.getDesconexionesPorLentitud()).isZero();
+    }
+
+    /**
+     * Cliente que no lee. Como el SseEmitter real, escribe con el monitor del emitter tomado (complete() también
+     * lo toma) y, como una escritura bloqueante de Tomcat, no vuelve al ser interrumpida: solo al liberarla.
+     */
+    private static class EmitterTrabado extends SseEmitter {
+
+        private final CountDownLatch escribiendo = new CountDownLatch(1);
+        private final CountDownLatch interrumpido = new CountDownLatch(1);
+        private final CountDownLatch liberar = new CountDownLatch(1);
+        private final CountDownLatch cerrado = new CountDownLatch(1);
+
+        @Override
+        public synchronized void send(SseEventBuilder evento) {
+            escribiendo.countDown();
+            while (true) {
+                try {
+                    liberar.await();
+                    return;
+                } catch (InterruptedException exception) {
+                    interrumpido.countDown();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            cerrado.countDown();
+        }
+    }
+
+    private static class EmitterSano extends SseEmitter {
+
+        private final BlockingQueue<SseEventBuilder> eventos = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder evento) {
+            eventos.add(evento);
+        }
+    }
+}
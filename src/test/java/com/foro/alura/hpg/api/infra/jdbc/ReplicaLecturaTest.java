@@ -0,0 +1,176 @@
+package com.foro.alura.hpg.api.infra.jdbc;
+
+import com.foro.alura.hpg.api.domain.topico.CacheTopicos;
+import com.foro.alura.hpg.api.domain.topico.DatosRegistroTopico;
+import com.foro.alura.hpg.api.domain.topico.ITopicoRepository;
+import com.foro.alura.hpg.api.domain.topico.Topico;
+import com.foro.alura.hpg.api.domain.usuario.DatosRegistroUsuario;
+import com.foro.alura.hpg.api.domain.usuario.IUsuarioRepository;
+import com.foro.alura.hpg.api.domain.usuario.Usuario;
+import com.foro.alura.hpg.api.infra.security.TokenService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Réplica de lectura con dos bases H2 en memoria: el primario (migrado por la aplicación)
+ * y una "réplica" migrada con Flyway por la prueba, con datos distintos a propósito
+ * para saber de qué base salió cada respuesta.
+ */
+@SpringBootTest(properties = {
+        "api.datasource.replica.habilitada=true",
+        "api.datasource.replica.url=" + ReplicaLecturaTest.URL_REPLICA,
+        "api.datasource.replica.ventana-lectura-propia-ms=60000",
+        "api.datasource.replica.verificacion-ms=3600000",
+        "api.jdbc.limite.habilitado=true",
+        "spring.datasource.hikari.maximum-pool-size=6",
+        "api.datasource.replica.hikari.maximum-pool-size=3"})
+@AutoConfigureMockMvc
+class ReplicaLecturaTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:foro_hub_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ITopicoRepository iTopicoRepository;
+
+    @Autowired
+    private IUsuarioRepository iUsuarioRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private CacheTopicos cacheTopicos;
+
+    @Autowired
+    private DataSourceLecturaEscritura lecturaEscritura;
+
+    @Autowired
+    @Qualifier("dataSourceReplica")
+    private DataSource dataSourceReplica;
+
+    @Autowired
+    @Qualifier("dataSourcePrimario")
+    private DataSource dataSourcePrimario;
+
+    private String tokenAutor;
+    private String tokenLector;
+    private Long idTopico;
+
+    @BeforeEach
+    void prepararBases() {
+        Flyway.configure().dataSource(dataSourceReplica).load().migrate();
+        var replica = new JdbcTemplate(dataSourceReplica);
+        replica.update("delete from topicos_archivo");
+        replica.update("delete from topicos");
+        replica.update("delete from usuarios");
+
+        lecturaEscritura.verificarReplica();
+        iTopicoRepository.deleteAll();
+        iUsuarioRepository.deleteAll();
+
+        // Primario: dos tópicos. Réplica: los mismos usuarios y solo el segundo tópico, con otro título.
+        var autor = iUsuarioRepository.save(new Usuario(new DatosRegistroUsuario("Autor", "Replica", "autor@foro.com", "secreto")));
+        var lector = iUsuarioRepository.save(new Usuario(new DatosRegistroUsuario("Lector", "Replica", "lector@foro.com", "secreto")));
+        iTopicoRepository.save(new Topico(new DatosRegistroTopico("Primero", "Mensaje 1", autor.getId(), "Java"), autor));
+        idTopico = iTopicoRepository.save(new Topico(new DatosRegistroTopico("En el primario", "Mensaje 2", autor.getId(), "Java"), autor)).getId();
+        cacheTopicos.invalidar(idTopico);
+
+        for (var usuario : new Usuario[]{autor, lector}) {
+            replica.update("insert into usuarios (id, nombre, apellido, email, password) values (?, ?, ?, ?, ?)",
+                    usuario.getId(), usuario.getNombre(), usuario.getApellido(), usuario.getEmail(), usuario.getPassword());
+        }
+        var ahora = LocalDateTime.now();
+        replica.update("""
+                insert into topicos (id, titulo, mensaje, fecha_de_creacion, fecha_de_actualizacion, status, curso,
+                                     curso_normalizado, usuario_id, activo, version)
+                values (?, 'En la replica', 'Mensaje 2', ?, ?, 'ABIERTO', 'Java', 'java', ?, 1, 0)
+                """, idTopico, ahora, ahora, autor.getId());
+
+        tokenAutor = "Bearer " + tokenService.generarToken(autor);
+        tokenLector = "Bearer " + tokenService.generarToken(lector);
+    }
+
+    @Test
+    void lasLecturasVanALaReplica() throws Exception {
+        mvc.perform(get("/topicos?total=exacto").header("Authorization", tokenLector))
+                .andExpect(jsonPath("$.totalElements").value(1));
+        mvc.perform(get("/topicos/buscar?curso=java&total=exacto").header("Authorization", tokenLector))
+                .andExpect(jsonPath("$.totalElements").value(1));
+        assertThat(lecturaEscritura.getConexionesReplica()).isPositive();
+    }
+
+    @Test
+    void elDetalleQueSeGuardaEnCacheSeLeeDelPrimario() throws Exception {
+        // La réplica tiene una versión atrasada del tópico: no debe quedar en CacheTopicos.
+        var conexionesReplica = lecturaEscritura.getConexionesReplica();
+        mvc.perform(get("/topicos/" + idTopico).header("Authorization", tokenLector))
+                .andExpect(jsonPath("$.titulo").value("En el primario"));
+        mvc.perform(get("/topicos/" + idTopico).header("Authorization", tokenLector))
+                .andExpect(jsonPath("$.titulo").value("En el primario"));
+        assertThat(lecturaEscritura.getConexionesReplica()).isEqualTo(conexionesReplica);
+
+        // Cargar el detalle no es una escritura: el mismo cliente sigue leyendo los listados de la réplica.
+        mvc.perform(get("/topicos?total=exacto").header("Authorization", tokenLector))
+                .andExpect(jsonPath("$.totalElements").value(1));
+        assertThat(lecturaEscritura.getConexionesReplica()).isGreaterThan(conexionesReplica);
+    }
+
+    @Test
+    void despuesDeEscribirElMismoClienteLeeDelPrimario() throws Exception {
+        mvc.perform(put("/topicos").header("Authorization", tokenAutor)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": %d, \"titulo\": \"Editado\"}".formatted(idTopico)))
+                .andExpect(status().isOk());
+
+        // El autor ve su propio cambio; otro cliente sigue leyendo de la réplica.
+        mvc.perform(get("/topicos?total=exacto&sort=id").header("Authorization", tokenAutor))
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[1].titulo").value("Editado"));
+        mvc.perform(get("/topicos?total=exacto").header("Authorization", tokenLector))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].titulo").value("En la replica"));
+    }
+
+    @Test
+    void cadaPoolSeLimitaConSuPropioTamanio() {
+        assertThat(dataSourcePrimario).isInstanceOf(DataSourceConLimite.class);
+        assertThat(dataSourceReplica).isInstanceOf(DataSourceConLimite.class);
+        assertThat(((DataSourceConLimite) dataSourcePrimario).getPermisosDisponibles()).isEqualTo(6);
+        assertThat(((DataSourceConLimite) dataSourceReplica).getPermisosDisponibles()).isEqualTo(3);
+    }
+
+    @Test
+    @DirtiesContext
+    void siLaReplicaSeCaeSeLeeDelPrimario() throws Exception {
+        dataSourceReplica.unwrap(HikariDataSource.class).close();
+
+        mvc.perform(get("/topicos?total=exacto").header("Authorization", tokenLector))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2));
+        assertThat(lecturaEscritura.isReplicaSana()).isFalse();
+        assertThat(lecturaEscritura.verificarReplica()).isFalse();
+        assertThat(lecturaEscritura.getDesviosAlPrimario()).isPositive();
+    }
+}
@@ -0,0 +1,54 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachePrincipalesTest {
+
+    @Test
+    void devuelveElUsuarioGuardadoHastaQueSeInvalida() {
+        var cache = new CachePrincipales(60, 10);
+        var usuario = usuario("ana@foro.com");
+
+        assertThat(cache.obtener("ana@foro.com")).isNull();
+        cache.guardar("ana@foro.com", usuario);
+        assertThat(cache.obtener("ana@foro.com")).isSameAs(usuario);
+
+        cache.invalidar("ana@foro.com");
+        assertThat(cache.obtener("ana@foro.com")).isNull();
+        assertThat(cache.getAciertos()).isEqualTo(1);
+        assertThat(cache.getFallos()).isEqualTo(2);
+    }
+
+    @Test
+    void lasEntradasVencidasNoSeDevuelvenYLaPurgaLasQuita() throws InterruptedException {
+        var cache = new CachePrincipales(0, 10);
+        cache.guardar("ana@foro.com", usuario("ana@foro.com"));
+        cache.guardar("luis@foro.com", usuario("luis@foro.com"));
+        Thread.sleep(5);
+
+        assertThat(cache.obtener("ana@foro.com")).isNull();
+        assertThat(cache.getTamanio()).isEqualTo(1);
+
+        cache.purgarVencidos();
+        assertThat(cache.getTamanio()).isZero();
+    }
+
+    @Test
+    void alLlenarseLiberaUnLugarSinSuperarElMaximo() {
+        var cache = new CachePrincipales(60, 3);
+        for (int i = 0; i < 10; i++) {
+            cache.guardar("usuario" + i + "@foro.com", usuario("usuario" + i + "@foro.com"));
+        }
+
+        assertThat(cache.getTamanio()).isEqualTo(3);
+        assertThat(cache.obtener("usuario9@foro.com")).isNotNull();
+    }
+
+    private static UserDetails usuario(String email) {
+        return User.withUsername(email).password("{noop}clave").roles("USER").build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheTokensVerificadosTest {
+
+    @Test
+    void devuelveElTokenGuardadoYCuentaAciertosYFallos() {
+        var cache = new CacheTokensVerificados(10);
+        var datos = vigente("ana@foro.com");
+
+        assertThat(cache.obtener("token-1")).isNull();
+        cache.guardar("token-1", datos);
+
+        assertThat(cache.obtener("token-1")).isEqualTo(datos);
+        assertThat(cache.getAciertos()).isEqualTo(1);
+        assertThat(cache.getFallos()).isEqualTo(1);
+    }
+
+    @Test
+    void noDevuelveTokensExpiradosYLaPurgaLosQuita() {
+        var cache = new CacheTokensVerificados(10);
+        cache.guardar("expirado-1", expirado());
+        cache.guardar("expirado-2", expirado());
+        cache.guardar("vigente", vigente("ana@foro.com"));
+
+        assertThat(cache.obtener("expirado-1")).isNull();
+        assertThat(cache.getTamanio()).isEqualTo(2);
+
+        cache.purgarExpirados();
+        assertThat(cache.getTamanio()).isEqualTo(1);
+        assertThat(cache.obtener("vigente")).isNotNull();
+    }
+
+    @Test
+    void alLlenarseLiberaUnLugarSinSuperarElMaximo() {
+        var cache = new CacheTokensVerificados(3);
+        for (int i = 0; i < 10; i++) {
+            cache.guardar("token-" + i, vigente("usuario" + i + "@foro.com"));
+        }
+
+        assertThat(cache.getTamanio()).isEqualTo(3);
+        assertThat(cache.obtener("token-9")).isNotNull();
+    }
+
+    @Test
+    void conMaximoCeroNoGuardaNada() {
+        var cache = new CacheTokensVerificados(0);
+        cache.guardar("token", vigente("ana@foro.com"));
+
+        assertThat(cache.getTamanio()).isZero();
+    }
+
+    private static DatosTokenVerificado vigente(String subject) {
+        return new DatosTokenVerificado(subject, "jti-" + subject, Instant.now().plusSeconds(3600));
+    }
+
+    private static DatosTokenVerificado expirado() {
+        return new DatosTokenVerificado("viejo@foro.com", "jti-viejo", Instant.now().minusSeconds(1));
+    }
+}
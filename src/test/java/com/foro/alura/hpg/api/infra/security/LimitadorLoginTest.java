@@ -0,0 +1,43 @@
+package com.foro.alura.hpg.api.infra.security;
+
+import com.foro.alura.hpg.api.infra.exceptions.LimiteDeSolicitudesException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LimitadorLoginTest {
+
+    @Test
+    void inventarEmailsNoLeDevuelveLosIntentosALaVictima() {
+        // Una ficha por email, recarga de una por minuto y lugar para dos emails.
+        var limitador = new LimitadorLogin(1000, 60_000, 1, 1, 2);
+        limitador.verificar("ip", "victima@foro.com");
+        assertThatThrownBy(() -> limitador.verificar("ip", "victima@foro.com"))
+                .isInstanceOf(LimiteDeSolicitudesException.class);
+
+        limitador.verificar("ip", "otro-1@foro.com");
+        // Mapa lleno y el menos usado (la víctima) sigue vacío: la clave nueva se rechaza en lugar de desalojarlo.
+        for (int i = 2; i < 10; i++) {
+            var email = "otro-" + i + "@foro.com";
+            assertThatThrownBy(() -> limitador.verificar("ip", email))
+                    .isInstanceOf(LimiteDeSolicitudesException.class);
+        }
+
+        limitador.purgarLlenos();
+        assertThatThrownBy(() -> limitador.verificar("ip", "victima@foro.com"))
+                .isInstanceOf(LimiteDeSolicitudesException.class);
+    }
+
+    @Test
+    void alLlenarseDescartaElBucketMenosUsadoSiYaSeRecargo() throws InterruptedException {
+        // Recarga de mil fichas por segundo: en pocos milisegundos cada bucket vuelve a estar lleno.
+        var limitador = new LimitadorLogin(1000, 60_000, 1, 60_000, 2);
+        limitador.verificar("ip", "ana@foro.com");
+        limitador.verificar("ip", "luis@foro.com");
+        Thread.sleep(10);
+
+        assertThatCode(() -> limitador.verificar("ip", "eva@foro.com")).doesNotThrowAnyException();
+        assertThatCode(() -> limitador.verificar("ip", "ana@foro.com")).doesNotThrowAnyException();
+    }
+}